@@ -0,0 +1,98 @@
+package com.wellwork.analytics;
+
+import com.wellwork.repository.CheckInAnalyticsRepository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Divide a faixa de ids ao meio até ficar com no máximo {@code chunkSize} ids; cada folha lê
+ * sua faixa numa query própria e preenche uma matriz local. As matrizes são somadas na volta.
+ */
+public class CheckInAggregationTask extends RecursiveTask<CheckInCountMatrix> {
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    private final CheckInAnalyticsRepository repository;
+    private final long fromId;
+    private final long toId;
+    private final long chunkSize;
+    private final LocalDate firstDay;
+    private final int days;
+    private final ZoneId zone;
+
+    public CheckInAggregationTask(CheckInAnalyticsRepository repository, long fromId, long toId, long chunkSize,
+                                  LocalDate firstDay, int days, ZoneId zone) {
+        this.repository = repository;
+        this.fromId = fromId;
+        this.toId = toId;
+        this.chunkSize = chunkSize;
+        this.firstDay = firstDay;
+        this.days = days;
+        this.zone = zone;
+    }
+
+    @Override
+    protected CheckInCountMatrix compute() {
+        if (toId - fromId < chunkSize) {
+            return scan();
+        }
+
+        long mid = fromId + (toId - fromId) / 2;
+        CheckInAggregationTask left = new CheckInAggregationTask(repository, fromId, mid, chunkSize, firstDay, days, zone);
+        CheckInAggregationTask right = new CheckInAggregationTask(repository, mid + 1, toId, chunkSize, firstDay, days, zone);
+        left.fork();
+        CheckInCountMatrix rightResult = right.compute();
+        return left.join().merge(rightResult);
+    }
+
+    // a query bloqueia a thread: avisa o pool via ManagedBlocker (que, limitado a parallelism threads,
+    // não compensa com threads extras — cada uma seguraria outra conexão do Hikari)
+    private CheckInCountMatrix scan() {
+        ScanBlocker blocker = new ScanBlocker();
+        try {
+            ForkJoinPool.managedBlock(blocker);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Agregação interrompida");
+        }
+        return blocker.result;
+    }
+
+    private CheckInCountMatrix doScan() {
+        CheckInCountMatrix matrix = new CheckInCountMatrix(firstDay, days);
+        Instant since = firstDay.atStartOfDay(zone).toInstant();
+
+        // fuso de offset fixo (UTC, padrão): dia calculado por aritmética, sem alocar objetos por linha
+        ZoneOffset fixedOffset = zone.getRules().isFixedOffset() ? zone.getRules().getOffset(Instant.EPOCH) : null;
+
+        repository.scanRange(fromId, toId, since, (mood, energyLevel, createdAtMillis) -> {
+            long epochDay = fixedOffset != null
+                    ? Math.floorDiv(Math.floorDiv(createdAtMillis, 1000) + fixedOffset.getTotalSeconds(), SECONDS_PER_DAY)
+                    : Instant.ofEpochMilli(createdAtMillis).atZone(zone).toLocalDate().toEpochDay();
+            matrix.increment(epochDay, MoodEnergyHistogram.cell(mood, energyLevel));
+        });
+        return matrix;
+    }
+
+    private final class ScanBlocker implements ForkJoinPool.ManagedBlocker {
+
+        private CheckInCountMatrix result;
+
+        @Override
+        public boolean block() {
+            result = doScan();
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return result != null;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.wellwork.analytics;
+
+import com.wellwork.model.enums.Granularity;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Contadores dia × Mood × EnergyLevel de uma janela fixa de dias, num único long[]
+ * ({@code counts[dia * CELLS + cell]}). Semana e mês são derivados somando os dias.
+ * Não é thread-safe: cada tarefa do fork-join preenche a sua e o resultado é combinado com {@link #merge}.
+ */
+public final class CheckInCountMatrix {
+
+    private static final int CELLS = MoodEnergyHistogram.CELLS;
+
+    private final LocalDate firstDay;
+    private final long firstEpochDay;
+    private final int days;
+    private final long[] counts;
+
+    public CheckInCountMatrix(LocalDate firstDay, int days) {
+        this.firstDay = firstDay;
+        this.firstEpochDay = firstDay.toEpochDay();
+        this.days = days;
+        this.counts = new long[days * CELLS];
+    }
+
+    // dias fora da janela são ignorados
+    public void increment(long epochDay, int cell) {
+        long day = epochDay - firstEpochDay;
+        if (day >= 0 && day < days) {
+            counts[(int) day * CELLS + cell]++;
+        }
+    }
+
+    public CheckInCountMatrix merge(CheckInCountMatrix other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        return this;
+    }
+
+    public LocalDate firstDay() {
+        return firstDay;
+    }
+
+    public LocalDate lastDay() {
+        return firstDay.plusDays(days - 1L);
+    }
+
+    public long total() {
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        return total;
+    }
+
+    /**
+     * Agrega os dias de [from, to] (limitados à janela) em buckets da granularidade pedida.
+     * Buckets sem check-in não aparecem.
+     */
+    public Map<LocalDate, MoodEnergyHistogram> aggregate(Granularity granularity, LocalDate from, LocalDate to) {
+        Map<LocalDate, MoodEnergyHistogram> buckets = new LinkedHashMap<>();
+        int start = (int) Math.max(0, from.toEpochDay() - firstEpochDay);
+        int end = (int) Math.min(days - 1L, to.toEpochDay() - firstEpochDay);
+
+        for (int day = start; day <= end; day++) {
+            if (isEmpty(day)) {
+                continue;
+            }
+            LocalDate bucket = granularity.bucketStart(firstDay.plusDays(day));
+            buckets.computeIfAbsent(bucket, b -> new MoodEnergyHistogram()).addCells(counts, day * CELLS);
+        }
+        return buckets;
+    }
+
+    private boolean isEmpty(int day) {
+        int offset = day * CELLS;
+        for (int i = 0; i < CELLS; i++) {
+            if (counts[offset + i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,71 @@
+package com.wellwork.analytics;
+
+import com.wellwork.model.entities.CheckInDailyRollup;
+import com.wellwork.model.enums.Granularity;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Série diária imutável de um usuário: só os dias com check-in, em arrays primitivos.
+ * {@code counts[i * CELLS + cell]} é a contagem do dia {@code epochDays[i]} para a célula Mood × EnergyLevel.
+ */
+public final class DailyTrendSeries {
+
+    private static final int CELLS = MoodEnergyHistogram.CELLS;
+
+    private final LocalDate coveredFrom;
+    private final int[] epochDays;
+    private final int[] counts;
+
+    private DailyTrendSeries(LocalDate coveredFrom, int[] epochDays, int[] counts) {
+        this.coveredFrom = coveredFrom;
+        this.epochDays = epochDays;
+        this.counts = counts;
+    }
+
+    public static DailyTrendSeries of(LocalDate coveredFrom, List<CheckInDailyRollup> rows) {
+        TreeMap<Integer, int[]> byDay = new TreeMap<>();
+        for (CheckInDailyRollup row : rows) {
+            int[] cells = byDay.computeIfAbsent((int) row.getId().getDay().toEpochDay(), d -> new int[CELLS]);
+            cells[MoodEnergyHistogram.cell(row.getId().getMood(), row.getId().getEnergyLevel())] += (int) row.getCheckIns();
+        }
+
+        int[] epochDays = new int[byDay.size()];
+        int[] counts = new int[byDay.size() * CELLS];
+        int i = 0;
+        for (Map.Entry<Integer, int[]> e : byDay.entrySet()) {
+            epochDays[i] = e.getKey();
+            System.arraycopy(e.getValue(), 0, counts, i * CELLS, CELLS);
+            i++;
+        }
+        return new DailyTrendSeries(coveredFrom, epochDays, counts);
+    }
+
+    // primeiro dia garantidamente presente na série (antes disso, os dados não foram carregados)
+    public LocalDate coveredFrom() {
+        return coveredFrom;
+    }
+
+    /**
+     * Agrega os dias de [from, to] em buckets da granularidade pedida. Custo O(dias com check-in no intervalo).
+     */
+    public Map<LocalDate, MoodEnergyHistogram> aggregate(Granularity granularity, LocalDate from, LocalDate to) {
+        Map<LocalDate, MoodEnergyHistogram> buckets = new LinkedHashMap<>();
+        int start = Arrays.binarySearch(epochDays, (int) from.toEpochDay());
+        if (start < 0) {
+            start = -start - 1;
+        }
+        int end = (int) to.toEpochDay();
+
+        for (int i = start; i < epochDays.length && epochDays[i] <= end; i++) {
+            LocalDate bucket = granularity.bucketStart(LocalDate.ofEpochDay(epochDays[i]));
+            buckets.computeIfAbsent(bucket, b -> new MoodEnergyHistogram()).addCells(counts, i * CELLS);
+        }
+        return buckets;
+    }
+}
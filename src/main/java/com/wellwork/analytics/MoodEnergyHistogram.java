@@ -0,0 +1,77 @@
+package com.wellwork.analytics;
+
+import com.wellwork.model.enums.EnergyLevel;
+import com.wellwork.model.enums.Mood;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Contagens Mood × EnergyLevel num único long[], indexado pelos ordinais dos enums
+ * ({@code mood.ordinal() * ENERGY_LEVELS + energy.ordinal()}).
+ */
+public final class MoodEnergyHistogram {
+
+    public static final int MOODS = Mood.values().length;
+    public static final int ENERGY_LEVELS = EnergyLevel.values().length;
+    public static final int CELLS = MOODS * ENERGY_LEVELS;
+
+    private final long[] counts = new long[CELLS];
+
+    public static int cell(Mood mood, EnergyLevel energyLevel) {
+        return mood.ordinal() * ENERGY_LEVELS + energyLevel.ordinal();
+    }
+
+    public void add(Mood mood, EnergyLevel energyLevel, long count) {
+        counts[cell(mood, energyLevel)] += count;
+    }
+
+    // soma CELLS posições de src a partir de offset (séries/matrizes com o mesmo layout)
+    public void addCells(long[] src, int offset) {
+        for (int i = 0; i < CELLS; i++) {
+            counts[i] += src[offset + i];
+        }
+    }
+
+    public void addCells(int[] src, int offset) {
+        for (int i = 0; i < CELLS; i++) {
+            counts[i] += src[offset + i];
+        }
+    }
+
+    public long count(Mood mood, EnergyLevel energyLevel) {
+        return counts[cell(mood, energyLevel)];
+    }
+
+    public long total() {
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        return total;
+    }
+
+    public Map<Mood, Long> moods() {
+        Map<Mood, Long> result = new EnumMap<>(Mood.class);
+        for (Mood mood : Mood.values()) {
+            long sum = 0;
+            for (EnergyLevel energy : EnergyLevel.values()) {
+                sum += counts[cell(mood, energy)];
+            }
+            result.put(mood, sum);
+        }
+        return result;
+    }
+
+    public Map<EnergyLevel, Long> energyLevels() {
+        Map<EnergyLevel, Long> result = new EnumMap<>(EnergyLevel.class);
+        for (EnergyLevel energy : EnergyLevel.values()) {
+            long sum = 0;
+            for (Mood mood : Mood.values()) {
+                sum += counts[cell(mood, energy)];
+            }
+            result.put(energy, sum);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,9 @@
+package com.wellwork.analytics;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Resultado de uma agregação completa da organização; a matriz não é mais alterada depois de publicada.
+ */
+public record OrgWellbeingSnapshot(CheckInCountMatrix matrix, Instant computedAt, Duration elapsed) {}
@@ -1,10 +1,59 @@
 package com.wellwork.config;
 
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
-// Placeholder config for Spring AI / Groq integration.
-// Adjust according to the Spring AI version and Groq endpoint.
 @Configuration
 public class AiConfig {
-    // configure beans for AI client here (e.g., OpenAI-compatible client pointing to Groq)
+
+    public static final String GROQ_WEB_CLIENT = "groqWebClient";
+    public static final String GROQ_RESILIENCE = "groq";
+
+    /**
+     * Pool de conexões próprio para a Groq: conexões limitadas, fila de espera limitada
+     * (acima disso falha na hora) e conexões ociosas descartadas antes do servidor fechá-las.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider groqConnectionProvider(
+            @Value("${groq.http.max-connections:50}") int maxConnections,
+            @Value("${groq.http.pending-acquire-max:200}") int pendingAcquireMax,
+            @Value("${groq.http.pending-acquire-timeout-ms:2000}") long pendingAcquireTimeoutMs,
+            @Value("${groq.http.max-idle-ms:30000}") long maxIdleMs) {
+        return ConnectionProvider.builder("groq")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleMs))
+                .evictInBackground(Duration.ofMillis(maxIdleMs))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean(name = GROQ_WEB_CLIENT)
+    public WebClient groqWebClient(ConnectionProvider groqConnectionProvider,
+                                   @Value("${groq.api.key}") String apiKey,
+                                   @Value("${groq.base-url:https://api.groq.com}") String baseUrl,
+                                   @Value("${groq.http.connect-timeout-ms:3000}") int connectTimeoutMs,
+                                   @Value("${groq.http.read-timeout-ms:20000}") long readTimeoutMs) {
+        HttpClient httpClient = HttpClient.create(groqConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs))
+                .doOnConnected(conn -> conn.addHandlerLast(new ReadTimeoutHandler(readTimeoutMs, TimeUnit.MILLISECONDS)));
+
+        return WebClient.builder()
+                .baseUrl(baseUrl)
+                .defaultHeader("Authorization", "Bearer " + apiKey)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
 }
@@ -0,0 +1,164 @@
+package com.wellwork.config;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class AsyncConfig {
+
+    public static final String AI_GENERATION_EXECUTOR = "aiGenerationExecutor";
+    public static final String MVC_ASYNC_EXECUTOR = "mvcAsyncExecutor";
+    public static final String ANALYTICS_POOL = "analyticsForkJoinPool";
+    public static final String PASSWORD_HASH_EXECUTOR = "passwordHashExecutor";
+    public static final String NOTIFICATIONS_EXECUTOR = "notificationsExecutor";
+
+    /**
+     * Executor dedicado à geração de mensagens AI.
+     * Pool e fila limitados; quando a fila enche a tarefa é rejeitada (AbortPolicy)
+     * em vez de rodar na thread do chamador, para nunca devolver a latência da LLM ao request.
+     */
+    @Bean(name = AI_GENERATION_EXECUTOR)
+    public ThreadPoolTaskExecutor aiGenerationExecutor(@Value("${wellwork.ai.executor.core-size:4}") int coreSize,
+                                                       @Value("${wellwork.ai.executor.max-size:16}") int maxSize,
+                                                       @Value("${wellwork.ai.executor.queue-capacity:500}") int queueCapacity,
+                                                       @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("ai-gen-");
+        configureThreads(executor, "ai-gen-", virtualThreads);
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    // executor.queued, executor.active, executor.pool.size ... com a tag name=ai.generation
+    @Bean
+    public MeterBinder aiGenerationExecutorMetrics(@Qualifier(AI_GENERATION_EXECUTOR) ThreadPoolTaskExecutor executor) {
+        return registry -> new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "ai.generation", Tags.empty())
+                .bindTo(registry);
+    }
+
+    /**
+     * Executor das respostas assíncronas do MVC (StreamingResponseBody do export).
+     * Declarado explicitamente porque, com outros executors no contexto, o Boot não cria o
+     * applicationTaskExecutor e o MVC cairia num SimpleAsyncTaskExecutor sem limite.
+     */
+    @Bean(name = MVC_ASYNC_EXECUTOR)
+    public ThreadPoolTaskExecutor mvcAsyncExecutor(@Value("${wellwork.mvc.async.core-size:8}") int coreSize,
+                                                   @Value("${wellwork.mvc.async.max-size:32}") int maxSize,
+                                                   @Value("${wellwork.mvc.async.queue-capacity:100}") int queueCapacity,
+                                                   @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("mvc-async-");
+        configureThreads(executor, "mvc-async-", virtualThreads);
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    @Bean
+    public WebMvcConfigurer mvcAsyncConfigurer(@Qualifier(MVC_ASYNC_EXECUTOR) ThreadPoolTaskExecutor executor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+                configurer.setTaskExecutor(executor);
+            }
+        };
+    }
+
+    /**
+     * Pool fork-join do analytics da organização, separado do commonPool (usado por parallel streams
+     * e CompletableFuture). As folhas fazem JDBC: o paralelismo dimensiona as queries simultâneas
+     * e deve ficar abaixo do maximum-pool-size do Hikari. maximumPoolSize = parallelism e saturate
+     * sempre true: folhas bloqueadas (ManagedBlocker / join) não criam threads de compensação,
+     * então nunca há mais que {@code parallelism} conexões em uso pelo analytics.
+     */
+    @Bean(name = ANALYTICS_POOL, destroyMethod = "shutdownNow")
+    public ForkJoinPool analyticsForkJoinPool(@Value("${wellwork.analytics.parallelism:4}") int parallelism) {
+        return new ForkJoinPool(parallelism, pool -> {
+            var worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setName("analytics-" + worker.getPoolIndex());
+            return worker;
+        }, null, false, parallelism, parallelism, 1, pool -> true, 60, TimeUnit.SECONDS);
+    }
+
+    @Bean
+    public MeterBinder analyticsPoolMetrics(@Qualifier(ANALYTICS_POOL) ForkJoinPool pool) {
+        return registry -> new ExecutorServiceMetrics(pool, "analytics", Tags.empty()).bindTo(registry);
+    }
+
+    /**
+     * Pool do BCrypt (login, cadastro, troca de senha). Trabalho puramente de CPU: threads de plataforma
+     * em número fixo, mesmo com virtual threads ligadas; fila curta e AbortPolicy para recusar rajadas.
+     */
+    @Bean(name = PASSWORD_HASH_EXECUTOR)
+    public ThreadPoolTaskExecutor passwordHashExecutor(@Value("${wellwork.security.password.hash-threads:2}") int threads,
+                                                       @Value("${wellwork.security.password.hash-queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("pwd-hash-");
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    @Bean
+    public MeterBinder passwordHashExecutorMetrics(@Qualifier(PASSWORD_HASH_EXECUTOR) ThreadPoolTaskExecutor executor) {
+        return registry -> new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "password.hash", Tags.empty())
+                .bindTo(registry);
+    }
+
+    /**
+     * Envios SSE do NotificationHub (entregas e heartbeats). SseEmitter.send bloqueia enquanto o cliente
+     * não lê: aqui isso ocupa só este pool, nunca o scheduler compartilhado nem o consumer do RabbitMQ.
+     * Fila cheia descarta o envio (AbortPolicy, contado no hub).
+     */
+    @Bean(name = NOTIFICATIONS_EXECUTOR)
+    public ThreadPoolTaskExecutor notificationsExecutor(@Value("${wellwork.notifications.executor.core-size:2}") int coreSize,
+                                                        @Value("${wellwork.notifications.executor.max-size:8}") int maxSize,
+                                                        @Value("${wellwork.notifications.executor.queue-capacity:2000}") int queueCapacity,
+                                                        @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("sse-send-");
+        configureThreads(executor, "sse-send-", virtualThreads);
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    @Bean
+    public MeterBinder notificationsExecutorMetrics(@Qualifier(NOTIFICATIONS_EXECUTOR) ThreadPoolTaskExecutor executor) {
+        return registry -> new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "notifications", Tags.empty())
+                .bindTo(registry);
+    }
+
+    /**
+     * Com spring.threads.virtual.enabled os workers passam a ser virtual threads, mas o executor continua
+     * sendo um ThreadPoolExecutor: fila limitada, AbortPolicy e métricas ficam iguais nos dois modos.
+     */
+    private static void configureThreads(ThreadPoolTaskExecutor executor, String prefix, boolean virtualThreads) {
+        if (virtualThreads) {
+            executor.setThreadFactory(Thread.ofVirtual().name(prefix, 0).factory());
+        }
+    }
+}
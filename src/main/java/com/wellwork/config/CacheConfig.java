@@ -1,10 +1,46 @@
 package com.wellwork.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CacheSpecProperties.class)
 public class CacheConfig {
-    // Configure Caffeine or Redis cache beans if needed
+
+    public static final String USERS_BY_ID = "users-by-id";
+    public static final String USERS_BY_USERNAME = "users-by-username";
+    public static final String CHECKIN_PAGES = "checkin-pages";
+    public static final String CHECKIN_TRENDS = "checkin-trends";
+    // Idempotency-Key de POST /api/checkins/{id}/generate-message -> resultado da primeira execução
+    public static final String IDEMPOTENCY_KEYS = "idempotency-keys";
+    // fora do CacheManager: o pool de variantes usa o Caffeine nativo (AiResponseCache), só a spec vem daqui
+    public static final String AI_RESPONSES = "ai-responses";
+
+    private static final List<String> CACHE_NAMES = List.of(
+            USERS_BY_ID, USERS_BY_USERNAME, CHECKIN_PAGES, CHECKIN_TRENDS, IDEMPOTENCY_KEYS
+    );
+
+    /**
+     * Todos os caches são declarados na inicialização para que o actuator registre
+     * cache.gets / cache.puts / cache.evictions de cada um (requer recordStats na spec).
+     * Transaction-aware: put/evict feitos dentro de uma transação só valem após o commit.
+     */
+    @Bean
+    public CacheManager cacheManager(CacheSpecProperties properties) {
+        SimpleCacheManager manager = new SimpleCacheManager();
+        manager.setCaches(CACHE_NAMES.stream()
+                .map(name -> new CaffeineCache(name, Caffeine.from(properties.specFor(name)).build()))
+                .toList());
+        manager.setTransactionAware(true);
+        return manager;
+    }
 }
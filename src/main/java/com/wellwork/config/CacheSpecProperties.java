@@ -0,0 +1,24 @@
+package com.wellwork.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Especificação Caffeine por cache (ex.: "maximumSize=1000,expireAfterWrite=10m,recordStats").
+ * Caches sem entrada em {@code specs} usam {@code defaultSpec}.
+ */
+@ConfigurationProperties(prefix = "wellwork.cache")
+public record CacheSpecProperties(String defaultSpec, Map<String, String> specs) {
+
+    public CacheSpecProperties {
+        if (defaultSpec == null || defaultSpec.isBlank()) {
+            defaultSpec = "maximumSize=1000,expireAfterWrite=10m,recordStats";
+        }
+        specs = specs == null ? Map.of() : Map.copyOf(specs);
+    }
+
+    public String specFor(String cacheName) {
+        return specs.getOrDefault(cacheName, defaultSpec);
+    }
+}
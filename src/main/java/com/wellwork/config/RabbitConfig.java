@@ -1,6 +1,13 @@
 package com.wellwork.config;
 
 import org.springframework.amqp.core.*;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.retry.RejectAndDontRequeueRecoverer;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,6 +18,17 @@ public class RabbitConfig {
     public static final String EXCHANGE = "user.exchange";
     public static final String ROUTING_KEY = "user.welcome";
 
+    public static final String AI_GENERATION_EXCHANGE = "ai.generation.exchange";
+    public static final String AI_GENERATION_QUEUE = "ai.generation.queue";
+    public static final String AI_GENERATION_ROUTING_KEY = "ai.generation";
+    public static final String AI_GENERATION_DLX = "ai.generation.dlx";
+    public static final String AI_GENERATION_DLQ = "ai.generation.dlq";
+    public static final String AI_GENERATION_CONTAINER_FACTORY = "aiGenerationContainerFactory";
+
+    public static final String NOTIFICATIONS_EXCHANGE = "notifications.fanout";
+    public static final String NOTIFICATIONS_QUEUE_BEAN = "notificationsQueue";
+    public static final String NOTIFICATIONS_CONTAINER_FACTORY = "notificationsContainerFactory";
+
     @Bean
     public Queue queue() {
         return new Queue(QUEUE_WELCOME, true);
@@ -25,4 +43,105 @@ public class RabbitConfig {
     public Binding binding() {
         return BindingBuilder.bind(queue()).to(exchange()).with(ROUTING_KEY);
     }
+
+    // ======================
+    // AI generation jobs
+    // ======================
+    @Bean
+    public DirectExchange aiGenerationExchange() {
+        return new DirectExchange(AI_GENERATION_EXCHANGE, true, false);
+    }
+
+    @Bean
+    public Queue aiGenerationQueue() {
+        return QueueBuilder.durable(AI_GENERATION_QUEUE)
+                .deadLetterExchange(AI_GENERATION_DLX)
+                .deadLetterRoutingKey(AI_GENERATION_ROUTING_KEY)
+                .build();
+    }
+
+    @Bean
+    public Binding aiGenerationBinding() {
+        return BindingBuilder.bind(aiGenerationQueue()).to(aiGenerationExchange()).with(AI_GENERATION_ROUTING_KEY);
+    }
+
+    @Bean
+    public DirectExchange aiGenerationDeadLetterExchange() {
+        return new DirectExchange(AI_GENERATION_DLX, true, false);
+    }
+
+    @Bean
+    public Queue aiGenerationDeadLetterQueue() {
+        return QueueBuilder.durable(AI_GENERATION_DLQ).build();
+    }
+
+    @Bean
+    public Binding aiGenerationDeadLetterBinding() {
+        return BindingBuilder.bind(aiGenerationDeadLetterQueue()).to(aiGenerationDeadLetterExchange())
+                .with(AI_GENERATION_ROUTING_KEY);
+    }
+
+    /**
+     * Pool de workers de geração AI, separado do container padrão (welcome).
+     * Falhas são retentadas com backoff exponencial; esgotadas as tentativas,
+     * a mensagem é rejeitada sem requeue e vai para a DLQ.
+     */
+    @Bean(name = AI_GENERATION_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory aiGenerationContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            @Value("${wellwork.ai.queue.concurrency:2}") int concurrency,
+            @Value("${wellwork.ai.queue.max-concurrency:8}") int maxConcurrency,
+            @Value("${wellwork.ai.queue.prefetch:4}") int prefetch,
+            @Value("${wellwork.ai.queue.retry.max-attempts:3}") int maxAttempts,
+            @Value("${wellwork.ai.queue.retry.initial-interval-ms:1000}") long initialInterval,
+            @Value("${wellwork.ai.queue.retry.multiplier:2.0}") double multiplier,
+            @Value("${wellwork.ai.queue.retry.max-interval-ms:10000}") long maxInterval) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(maxConcurrency);
+        factory.setPrefetchCount(prefetch);
+        factory.setDefaultRequeueRejected(false);
+        factory.setMessageConverter(new Jackson2JsonMessageConverter());
+        factory.setAdviceChain(RetryInterceptorBuilder.stateless()
+                .maxAttempts(maxAttempts)
+                .backOffOptions(initialInterval, multiplier, maxInterval)
+                .recoverer(new RejectAndDontRequeueRecoverer())
+                .build());
+        return factory;
+    }
+
+    // ======================
+    // Notificações (fanout para todos os nós da API)
+    // ======================
+    @Bean
+    public FanoutExchange notificationsExchange() {
+        return new FanoutExchange(NOTIFICATIONS_EXCHANGE, true, false);
+    }
+
+    // uma fila anônima por nó: exclusiva e auto-delete, some junto com a conexão do nó
+    @Bean(name = NOTIFICATIONS_QUEUE_BEAN)
+    public Queue notificationsQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("notifications."));
+    }
+
+    @Bean
+    public Binding notificationsBinding() {
+        return BindingBuilder.bind(notificationsQueue()).to(notificationsExchange());
+    }
+
+    // notificação perdida não é reprocessada: o cliente ainda pode consultar GET /api/checkins/{id}/message
+    @Bean(name = NOTIFICATIONS_CONTAINER_FACTORY)
+    public SimpleRabbitListenerContainerFactory notificationsContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        factory.setDefaultRequeueRejected(false);
+        factory.setMessageConverter(new Jackson2JsonMessageConverter());
+        return factory;
+    }
 }
@@ -1,10 +1,20 @@
 package com.wellwork.config;
 
+import com.wellwork.model.enums.Role;
+import com.wellwork.security.AuthenticatedUser;
 import com.wellwork.security.JwtUtil;
+import com.wellwork.security.ratelimit.InMemoryRateLimitStore;
+import com.wellwork.security.ratelimit.RateLimitFilter;
+import com.wellwork.security.ratelimit.RateLimitProperties;
+import com.wellwork.security.ratelimit.RateLimitStore;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -14,6 +24,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -21,11 +32,15 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableMethodSecurity
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfig {
 
+    private static final String BCRYPT_ID = "bcrypt";
+
     private final JwtUtil jwtUtil;
 
     public SecurityConfig(JwtUtil jwtUtil) {
@@ -33,22 +48,40 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   RateLimitProperties rateLimitProperties,
+                                                   ObjectProvider<RateLimitStore> rateLimitStore,
+                                                   MeterRegistry meterRegistry) throws Exception {
+        // um RateLimitStore compartilhado (multi-nó) declarado como bean substitui o store em memória
+        RateLimitStore store = rateLimitStore.getIfAvailable(() ->
+                new InMemoryRateLimitStore(rateLimitProperties.maxKeys(), rateLimitProperties.idleTimeout()));
+
         http
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/auth/**").permitAll() // registra/login livres
+                        // agregados da organização inteira (e scans da tabela toda): só RH/admin
+                        .requestMatchers("/api/analytics/**").hasAnyRole(Role.HR.name(), Role.ADMIN.name())
                         .anyRequest().authenticated()            // qualquer outra rota precisa de token
                 )
-                .addFilterBefore(new JwtAuthFilter(jwtUtil), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(new JwtAuthFilter(jwtUtil), UsernamePasswordAuthenticationFilter.class)
+                // depois do JWT: a cota é por usuário autenticado (IP quando não há token)
+                .addFilterAfter(new RateLimitFilter(store, rateLimitProperties, meterRegistry), JwtAuthFilter.class);
 
         return http.build();
     }
 
+    /**
+     * Hashes novos saem como "{bcrypt}..." com o custo configurado. Hashes antigos sem prefixo
+     * (BCrypt custo 10) continuam válidos e são regravados no próximo login correto (AuthService).
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${wellwork.security.password.bcrypt-strength:10}") int strength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 
     // Filtro JWT
@@ -68,14 +101,14 @@ public class SecurityConfig {
             String header = request.getHeader("Authorization");
             if (header != null && header.startsWith("Bearer ")) {
                 String token = header.substring(7);
-                String username = jwtUtil.validateTokenAndGetUsername(token);
+                AuthenticatedUser user = jwtUtil.validateToken(token);
 
-                if (username != null) {
+                if (user != null) {
                     UsernamePasswordAuthenticationToken auth =
                             new UsernamePasswordAuthenticationToken(
-                                    username,
+                                    user,
                                     null,
-                                    List.of(new SimpleGrantedAuthority("ROLE_USER"))
+                                    authorities(user.role())
                             );
                     SecurityContextHolder.getContext().setAuthentication(auth);
                 }
@@ -83,5 +116,11 @@ public class SecurityConfig {
 
             filterChain.doFilter(request, response);
         }
+
+        // todo usuário tem ROLE_USER; HR/ADMIN somam a própria role
+        private static List<SimpleGrantedAuthority> authorities(Role role) {
+            SimpleGrantedAuthority user = new SimpleGrantedAuthority("ROLE_" + Role.USER.name());
+            return role == Role.USER ? List.of(user) : List.of(user, new SimpleGrantedAuthority("ROLE_" + role.name()));
+        }
     }
 }
@@ -0,0 +1,38 @@
+package com.wellwork.controller;
+
+import com.wellwork.dto.WellbeingTrendDTO;
+import com.wellwork.model.enums.Granularity;
+import com.wellwork.service.OrgWellbeingAnalyticsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+
+    private final OrgWellbeingAnalyticsService analyticsService;
+
+    public AnalyticsController(OrgWellbeingAnalyticsService analyticsService) {
+        this.analyticsService = analyticsService;
+    }
+
+    // WELLBEING DA ORGANIZAÇÃO (snapshot em memória; Last-Modified = momento da última agregação)
+    @GetMapping("/wellbeing")
+    public CompletableFuture<ResponseEntity<WellbeingTrendDTO>> wellbeing(
+            @RequestParam(defaultValue = "WEEK") Granularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        return analyticsService.currentSnapshot()
+                .thenApply(snapshot -> ResponseEntity.ok()
+                        .lastModified(snapshot.computedAt())
+                        .body(analyticsService.trends(snapshot, granularity, from, to)));
+    }
+}
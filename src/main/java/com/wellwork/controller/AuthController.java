@@ -3,11 +3,15 @@ package com.wellwork.controller;
 import com.wellwork.dto.UserLoginDTO;
 import com.wellwork.dto.UserRequestDTO;
 import com.wellwork.dto.UserResponseDTO;
+import com.wellwork.security.LoginThrottledException;
 import com.wellwork.service.AuthService;
 import com.wellwork.service.UserService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -31,8 +35,15 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody UserLoginDTO req) {
-        String token = authService.login(req.getUsername(), req.getPassword());
-        return ResponseEntity.ok(new LoginResponse(token));
+    public ResponseEntity<LoginResponse> login(@Valid @RequestBody UserLoginDTO req, HttpServletRequest request) {
+        try {
+            String token = authService.login(req.getUsername(), req.getPassword(), request.getRemoteAddr());
+            return ResponseEntity.ok(new LoginResponse(token));
+        } catch (LoginThrottledException ex) {
+            long seconds = Math.max(1, (long) Math.ceil(ex.getRetryAfter().toMillis() / 1000.0));
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                    .build();
+        }
     }
 }
\ No newline at end of file
@@ -1,95 +1,211 @@
 package com.wellwork.controller;
 
+import com.wellwork.dto.BulkCheckInResultDTO;
+import com.wellwork.dto.CheckInPageDTO;
 import com.wellwork.dto.CheckInRequestDTO;
 import com.wellwork.dto.CheckInResponseDTO;
 import com.wellwork.dto.GeneratedMessageResponseDTO;
-import com.wellwork.model.entities.GeneratedMessage;
+import com.wellwork.dto.WellbeingTrendDTO;
+import com.wellwork.model.enums.Granularity;
+import com.wellwork.security.AuthenticatedUser;
+import com.wellwork.service.AiUnavailableException;
+import com.wellwork.service.CheckInBulkService;
+import com.wellwork.service.CheckInExportService;
 import com.wellwork.service.CheckInService;
 import com.wellwork.service.GeneratedMessageService;
 import com.wellwork.service.UserService;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import com.wellwork.service.WellbeingTrendService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/api/checkins")
 public class CheckInController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final CheckInService checkInService;
+    private final CheckInBulkService checkInBulkService;
+    private final CheckInExportService checkInExportService;
     private final GeneratedMessageService generatedMessageService;
+    private final WellbeingTrendService trendService;
     private final UserService userService;
 
     public CheckInController(CheckInService checkInService,
+                             CheckInBulkService checkInBulkService,
+                             CheckInExportService checkInExportService,
                              GeneratedMessageService generatedMessageService,
+                             WellbeingTrendService trendService,
                              UserService userService) {
         this.checkInService = checkInService;
+        this.checkInBulkService = checkInBulkService;
+        this.checkInExportService = checkInExportService;
         this.generatedMessageService = generatedMessageService;
+        this.trendService = trendService;
         this.userService = userService;
     }
 
     // CREATE CHECK-IN
     @PostMapping
-    public ResponseEntity<CheckInResponseDTO> create(Authentication authentication,
+    public ResponseEntity<CheckInResponseDTO> create(@AuthenticationPrincipal AuthenticatedUser user,
                                                      @Valid @RequestBody CheckInRequestDTO dto) {
 
-        String username = authentication.getName();
-        Long userId = userService.findEntityByUsername(username).getId();
-
-        dto.setUserId(userId);
+        dto.setUserId(userId(user));
 
         CheckInResponseDTO created = checkInService.create(dto);
         return ResponseEntity.status(201).body(created);
     }
 
-    // LIST CHECK-INS FROM LOGGED USER
+    // BULK CREATE (array JSON ou NDJSON, lido em streaming; resultado por item)
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkCheckInResultDTO> bulkCreate(@AuthenticationPrincipal AuthenticatedUser user,
+                                                           HttpServletRequest request) throws IOException {
+
+        BulkCheckInResultDTO result = checkInBulkService.ingest(userId(user), request.getInputStream());
+        return ResponseEntity.ok(result);
+    }
+
+    // LIST CHECK-INS FROM LOGGED USER (cursor: passe o nextCursor da resposta anterior)
+    // ETag calculado das versões lidas do banco (projeção leve): If-None-Match igual => 304 sem corpo.
+    // A página em cache é do nó; se não bater com o banco (escrita em outro nó), é relida.
     @GetMapping
-    public ResponseEntity<Page<CheckInResponseDTO>> listMine(Authentication authentication,
-                                                             Pageable pageable) {
+    public ResponseEntity<CheckInPageDTO> listMine(@AuthenticationPrincipal AuthenticatedUser user,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = "20") int size,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        Long userId = userId(user);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String current = ETags.checkInPage(checkInService.findPageVersions(userId, cursor, pageSize));
+        if (ETags.matches(ifNoneMatch, current)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+        }
+
+        CheckInPageDTO page = checkInService.findByUser(userId, cursor, pageSize);
+        if (!current.equals(ETags.checkInPage(page))) {
+            page = checkInService.reloadByUser(userId, cursor, pageSize);
+        }
+        return ResponseEntity.ok().eTag(ETags.checkInPage(page)).body(page);
+    }
+
+    // EXPORT FULL HISTORY (streaming do cursor JDBC direto para a resposta)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@AuthenticationPrincipal AuthenticatedUser user,
+                                                        @RequestParam(defaultValue = "ndjson") String format) {
+
+        CheckInExportService.Format exportFormat = "csv".equalsIgnoreCase(format)
+                ? CheckInExportService.Format.CSV
+                : CheckInExportService.Format.NDJSON;
+        Long userId = userId(user);
+
+        StreamingResponseBody body = out -> checkInExportService.export(userId, exportFormat, out);
 
-        String username = authentication.getName();
-        Long userId = userService.findEntityByUsername(username).getId();
+        MediaType contentType = exportFormat == CheckInExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+        String filename = "checkins." + exportFormat.name().toLowerCase();
 
-        Page<CheckInResponseDTO> page = checkInService.findByUser(userId, pageable);
-        return ResponseEntity.ok(page);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
+    // TRENDS (distribuição de humor/energia por dia, semana ou mês, lida dos rollups diários)
+    @GetMapping("/trends")
+    public ResponseEntity<WellbeingTrendDTO> trends(@AuthenticationPrincipal AuthenticatedUser user,
+                                                    @RequestParam(defaultValue = "MONTH") Granularity granularity,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+
+        return ResponseEntity.ok(trendService.getTrends(userId(user), granularity, from, to));
     }
 
     // GET CHECK-IN BY ID
+    // If-None-Match comparado com a versão lida pela PK: 304 sem carregar o check-in nem a mensagem
     @GetMapping("/{id}")
-    public ResponseEntity<CheckInResponseDTO> getById(@PathVariable Long id) {
-        CheckInResponseDTO dto = checkInService.toResponseDTO(checkInService.findEntityById(id));
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<CheckInResponseDTO> getById(@PathVariable Long id,
+                                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        if (ifNoneMatch != null) {
+            String current = ETags.checkIn(id, checkInService.findVersion(id));
+            if (ETags.matches(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
+
+        CheckInResponseDTO dto = checkInService.findResponseById(id);
+        return ResponseEntity.ok().eTag(ETags.checkIn(dto.getId(), dto.getVersion())).body(dto);
+    }
+
+    // GET GENERATED MESSAGE
+    @GetMapping("/{id}/message")
+    public ResponseEntity<GeneratedMessageResponseDTO> getMessage(@PathVariable Long id) {
+        return ResponseEntity.ok(generatedMessageService.findForCheckIn(id));
     }
 
     // PATCH (UPDATE PARTIAL)
     @PatchMapping("/{id}")
     public ResponseEntity<CheckInResponseDTO> patch(@PathVariable Long id,
                                                     @Valid @RequestBody CheckInRequestDTO patchDto,
-                                                    Authentication authentication) {
+                                                    @AuthenticationPrincipal AuthenticatedUser user) {
 
-        String username = authentication.getName();
-        Long userId = userService.findEntityByUsername(username).getId();
-
-        CheckInResponseDTO updated = checkInService.updatePartial(id, userId, patchDto);
+        CheckInResponseDTO updated = checkInService.updatePartial(id, userId(user), patchDto);
         return ResponseEntity.ok(updated);
     }
 
-    // GENERATE AI MESSAGE
+    // GENERATE AI MESSAGE (assíncrono: a thread do Tomcat é liberada enquanto a Groq responde)
+    // Idempotente: 200 com a mensagem já gravada; 201 quando gerou (ou regenerou, com regenerate=true)
     @PostMapping("/{id}/generate-message")
-    public ResponseEntity<GeneratedMessageResponseDTO> generateMessage(@PathVariable("id") Long id,
-                                                            Authentication authentication) {
-
-        // Apenas garantindo que o check-in existe
-        var checkIn = checkInService.findEntityById(id);
+    public Mono<ResponseEntity<GeneratedMessageResponseDTO>> generateMessage(@PathVariable("id") Long id,
+                                                                  @RequestParam(defaultValue = "false") boolean regenerate,
+                                                                  @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+
+        // A service já falha com "CheckIn não encontrado" se o id não existir;
+        // Groq indisponível => AiUnavailableException (503), sem persistir nada
+        return generatedMessageService.generateForCheckInAsync(id, regenerate, idempotencyKey)
+                .map(result -> ResponseEntity.status(result.created() ? 201 : 200).body(result.message()));
+    }
 
-        // Gera a mensagem usando sua service
-        GeneratedMessageResponseDTO response = generatedMessageService.generateForCheckIn(id);
+    // GENERATE AI MESSAGE EM STREAMING (SSE): eventos "token" com o texto parcial, "message" com o
+    // GeneratedMessage gravado ao final, ou "error" se a geração falhar no meio do caminho
+    @PostMapping(value = "/{id}/generate-message/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamMessage(@PathVariable("id") Long id,
+                                                       @RequestParam(defaultValue = "false") boolean regenerate) {
+
+        return generatedMessageService.streamForCheckIn(id, regenerate)
+                .map(event -> event.isCompleted()
+                        ? ServerSentEvent.builder().event("message").data((Object) event.message()).build()
+                        : ServerSentEvent.builder().event("token").data((Object) event.token()).build())
+                .onErrorResume(ex -> Flux.just(ServerSentEvent.builder()
+                        .event("error")
+                        .data((Object) (ex instanceof AiUnavailableException
+                                ? "Serviço de IA indisponível no momento"
+                                : "Falha ao gerar a mensagem"))
+                        .build()));
+    }
 
-        return ResponseEntity.status(201).body(response);
+    // id vem do token; só tokens antigos (sem claim "uid") caem no lookup por username
+    private Long userId(AuthenticatedUser user) {
+        if (user.id() != null) {
+            return user.id();
+        }
+        return userService.findEntityByUsername(user.username()).getId();
     }
 }
@@ -0,0 +1,69 @@
+package com.wellwork.controller;
+
+import com.wellwork.dto.CheckInPageDTO;
+import com.wellwork.dto.CheckInResponseDTO;
+import com.wellwork.dto.CheckInVersionDTO;
+import com.wellwork.dto.UserResponseDTO;
+import com.wellwork.service.CheckInService;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ETags fortes das respostas GET. Quando a resposta é um ResponseEntity 200 com ETag,
+ * o Spring MVC já responde 304 a um If-None-Match igual; {@link #matches} serve para decidir
+ * antes de carregar o corpo.
+ */
+final class ETags {
+
+    private ETags() {}
+
+    static String checkIn(Long id, long version) {
+        return "\"checkin-" + id + "-v" + version + "\"";
+    }
+
+    // muda se algum item mudar de versão, entrar ou sair da página, ou se o cursor seguinte mudar
+    static String checkInPage(CheckInPageDTO page) {
+        StringBuilder fingerprint = new StringBuilder();
+        for (CheckInResponseDTO item : page.items()) {
+            fingerprint.append(item.getId()).append(':').append(item.getVersion()).append(';');
+        }
+        return pageTag(fingerprint, page.nextCursor());
+    }
+
+    // mesmo valor de checkInPage(page) quando a página reflete essas versões
+    static String checkInPage(CheckInService.PageVersions versions) {
+        StringBuilder fingerprint = new StringBuilder();
+        for (CheckInVersionDTO item : versions.items()) {
+            fingerprint.append(item.id()).append(':').append(item.version()).append(';');
+        }
+        return pageTag(fingerprint, versions.nextCursor());
+    }
+
+    static String user(UserResponseDTO user) {
+        return "\"user-" + user.getId() + "-" + md5(user.getUsername()) + "\"";
+    }
+
+    // If-None-Match usa comparação fraca: W/"x" casa com "x"
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String pageTag(StringBuilder fingerprint, String nextCursor) {
+        fingerprint.append(nextCursor);
+        return "\"checkins-" + md5(fingerprint.toString()) + "\"";
+    }
+
+    private static String md5(String value) {
+        return DigestUtils.md5DigestAsHex(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,31 @@
+package com.wellwork.controller;
+
+import com.wellwork.security.AuthenticatedUser;
+import com.wellwork.service.NotificationHub;
+import com.wellwork.service.UserService;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/notifications")
+public class NotificationController {
+
+    private final NotificationHub notificationHub;
+    private final UserService userService;
+
+    public NotificationController(NotificationHub notificationHub, UserService userService) {
+        this.notificationHub = notificationHub;
+        this.userService = userService;
+    }
+
+    // STREAM DE NOTIFICAÇÕES (SSE): evento "message-ready" quando a mensagem AI de um check-in fica pronta
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@AuthenticationPrincipal AuthenticatedUser user) {
+        Long userId = user.id() != null ? user.id() : userService.findEntityByUsername(user.username()).getId();
+        return notificationHub.subscribe(userId);
+    }
+}
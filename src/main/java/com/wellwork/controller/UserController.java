@@ -26,13 +26,14 @@ public class UserController {
         this.userService = userService;
     }
 
-    // get current authenticated user's profile
+    // get current authenticated user's profile (servido do cache; If-None-Match igual => 304)
     @GetMapping("/me")
-    public UserResponseDTO me() {
+    public ResponseEntity<UserResponseDTO> me() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String username = auth.getName(); // ← isto sempre funciona no seu sistema
 
-        return userService.findByUsernameResponse(username);
+        UserResponseDTO dto = userService.findByUsernameResponse(username);
+        return ResponseEntity.ok().eTag(ETags.user(dto)).body(dto);
     }
 
     // list users (admin use-case) - paginated
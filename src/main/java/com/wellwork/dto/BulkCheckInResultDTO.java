@@ -0,0 +1,14 @@
+package com.wellwork.dto;
+
+import java.util.List;
+
+/**
+ * Resultado da ingestão bulk. {@code items} traz uma entrada por item recebido, na ordem do corpo.
+ */
+public record BulkCheckInResultDTO(int received, int created, int failed, List<Item> items) {
+
+    /**
+     * {@code id} preenchido quando criado; {@code error} quando rejeitado.
+     */
+    public record Item(int index, Long id, String error) {}
+}
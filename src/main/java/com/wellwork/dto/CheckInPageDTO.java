@@ -0,0 +1,8 @@
+package com.wellwork.dto;
+
+import java.util.List;
+
+/**
+ * Página de check-ins por cursor. {@code nextCursor} é opaco e null na última página.
+ */
+public record CheckInPageDTO(List<CheckInResponseDTO> items, String nextCursor) {}
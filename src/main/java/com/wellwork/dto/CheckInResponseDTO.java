@@ -2,12 +2,16 @@ package com.wellwork.dto;
 
 import com.wellwork.model.enums.EnergyLevel;
 import com.wellwork.model.enums.Mood;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.Instant;
 import java.time.OffsetDateTime;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor // usado pelas projeções JPQL do CheckInRepository (manter a ordem dos campos)
 public class CheckInResponseDTO {
 
     private Long id;
@@ -17,4 +21,5 @@ public class CheckInResponseDTO {
     private String notes;
     private OffsetDateTime createdAt;
     private String generatedMessage;
+    private long version;
 }
@@ -0,0 +1,8 @@
+package com.wellwork.dto;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Só o necessário para o ETag de uma página de check-ins: id, versão e a chave do cursor.
+ */
+public record CheckInVersionDTO(Long id, long version, OffsetDateTime createdAt) {}
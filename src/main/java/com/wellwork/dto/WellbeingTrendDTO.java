@@ -0,0 +1,17 @@
+package com.wellwork.dto;
+
+import com.wellwork.model.enums.EnergyLevel;
+import com.wellwork.model.enums.Granularity;
+import com.wellwork.model.enums.Mood;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Distribuição de humor e energia por bucket. Buckets sem check-in são omitidos.
+ */
+public record WellbeingTrendDTO(Granularity granularity, LocalDate from, LocalDate to, List<Bucket> buckets) {
+
+    public record Bucket(LocalDate start, long total, Map<Mood, Long> moods, Map<EnergyLevel, Long> energyLevels) {}
+}
@@ -0,0 +1,18 @@
+package com.wellwork.event;
+
+import java.util.List;
+
+/**
+ * Publicado dentro da transação de criação de um ou mais check-ins.
+ * Os listeners só reagem depois do commit.
+ */
+public record CheckInCreatedEvent(List<Long> checkInIds) {
+
+    public CheckInCreatedEvent {
+        checkInIds = List.copyOf(checkInIds);
+    }
+
+    public static CheckInCreatedEvent of(Long checkInId) {
+        return new CheckInCreatedEvent(List.of(checkInId));
+    }
+}
@@ -0,0 +1,9 @@
+package com.wellwork.event;
+
+import com.wellwork.dto.GeneratedMessageResponseDTO;
+
+/**
+ * Publicado dentro da transação que grava a mensagem gerada de um check-in.
+ * Os listeners só reagem depois do commit.
+ */
+public record MessageGeneratedEvent(Long userId, GeneratedMessageResponseDTO message) {}
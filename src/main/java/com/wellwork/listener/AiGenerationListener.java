@@ -0,0 +1,66 @@
+package com.wellwork.listener;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellwork.config.RabbitConfig;
+import com.wellwork.event.CheckInCreatedEvent;
+import com.wellwork.messaging.AiGenerationJob;
+import com.wellwork.service.AiGenerationDispatcher;
+import com.wellwork.service.OutboxService;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class AiGenerationListener {
+
+    private final AiGenerationDispatcher dispatcher;
+    private final OutboxService outboxService;
+    private final ObjectMapper objectMapper;
+    private final boolean useQueue;
+
+    public AiGenerationListener(AiGenerationDispatcher dispatcher,
+                                OutboxService outboxService,
+                                ObjectMapper objectMapper,
+                                @Value("${wellwork.ai.dispatch:rabbit}") String dispatchMode) {
+        this.dispatcher = dispatcher;
+        this.outboxService = outboxService;
+        this.objectMapper = objectMapper;
+        this.useQueue = "rabbit".equalsIgnoreCase(dispatchMode);
+    }
+
+    // Modo rabbit: o job entra no outbox na mesma transação do check-in e o OutboxRelay publica.
+    // O request não espera o broker e um crash depois do commit não perde o job.
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void enqueueJobs(CheckInCreatedEvent event) {
+        if (!useQueue) {
+            return;
+        }
+        for (Long checkInId : event.checkInIds()) {
+            outboxService.enqueue(
+                    RabbitConfig.AI_GENERATION_EXCHANGE,
+                    RabbitConfig.AI_GENERATION_ROUTING_KEY,
+                    toJson(new AiGenerationJob(checkInId)),
+                    MessageProperties.CONTENT_TYPE_JSON
+            );
+        }
+    }
+
+    // Modo local: só depois do commit (o worker precisa enxergar o check-in); dispatch só enfileira no executor
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void dispatchLocally(CheckInCreatedEvent event) {
+        if (!useQueue) {
+            event.checkInIds().forEach(dispatcher::dispatch);
+        }
+    }
+
+    private String toJson(AiGenerationJob job) {
+        try {
+            return objectMapper.writeValueAsString(job);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar job de geração", e);
+        }
+    }
+}
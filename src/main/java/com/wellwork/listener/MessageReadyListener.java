@@ -0,0 +1,61 @@
+package com.wellwork.listener;
+
+import com.wellwork.config.AsyncConfig;
+import com.wellwork.dto.GeneratedMessageResponseDTO;
+import com.wellwork.event.MessageGeneratedEvent;
+import com.wellwork.messaging.MessageReadyNotification;
+import com.wellwork.messaging.MessageReadyProducer;
+import com.wellwork.service.NotificationHub;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+public class MessageReadyListener {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageReadyListener.class);
+
+    private final MessageReadyProducer producer;
+    private final NotificationHub notificationHub;
+    // a publicação sai da thread que commitou (pode ser um request no caminho de streaming/regenerate)
+    private final TaskExecutor executor;
+
+    public MessageReadyListener(MessageReadyProducer producer,
+                                NotificationHub notificationHub,
+                                @Qualifier(AsyncConfig.NOTIFICATIONS_EXECUTOR) TaskExecutor executor) {
+        this.producer = producer;
+        this.notificationHub = notificationHub;
+        this.executor = executor;
+    }
+
+    // Só depois do commit: quem recebe a notificação precisa conseguir ler a mensagem
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMessageGenerated(MessageGeneratedEvent event) {
+        GeneratedMessageResponseDTO dto = event.message();
+        MessageReadyNotification notification = new MessageReadyNotification(
+                event.userId(), dto.getCheckInId(), dto.getId(), dto.getMessage(), dto.getConfidence(), dto.getGeneratedAt());
+        try {
+            executor.execute(() -> publish(notification));
+        } catch (TaskRejectedException ex) {
+            // pool cheio: não segura quem commitou; ao menos os assinantes deste nó recebem
+            log.warn("Pool de notificações cheio, notificando apenas assinantes locais do user {}", event.userId());
+            notificationHub.deliver(notification);
+        }
+    }
+
+    private void publish(MessageReadyNotification notification) {
+        try {
+            producer.publish(notification);
+        } catch (AmqpException ex) {
+            // sem broker, ao menos os assinantes deste nó recebem
+            log.warn("RabbitMQ indisponível, notificando apenas assinantes locais do user {}", notification.userId());
+            notificationHub.deliver(notification);
+        }
+    }
+}
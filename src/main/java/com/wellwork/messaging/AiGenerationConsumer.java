@@ -0,0 +1,37 @@
+package com.wellwork.messaging;
+
+import com.wellwork.config.RabbitConfig;
+import com.wellwork.service.GeneratedMessageService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Service;
+
+@Service
+public class AiGenerationConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(AiGenerationConsumer.class);
+
+    private final GeneratedMessageService generatedMessageService;
+
+    public AiGenerationConsumer(GeneratedMessageService generatedMessageService) {
+        this.generatedMessageService = generatedMessageService;
+    }
+
+    @RabbitListener(queues = RabbitConfig.AI_GENERATION_QUEUE,
+            containerFactory = RabbitConfig.AI_GENERATION_CONTAINER_FACTORY)
+    public void onJob(AiGenerationJob job) {
+        // Idempotente: redeliveries e jobs duplicados não geram uma segunda mensagem
+        if (generatedMessageService.hasMessage(job.checkInId())) {
+            log.debug("CheckIn {} já possui mensagem, ignorando job", job.checkInId());
+            return;
+        }
+
+        try {
+            generatedMessageService.generateForCheckIn(job.checkInId());
+        } catch (IllegalArgumentException ex) {
+            // check-in removido depois do enfileiramento: não adianta retentar
+            log.warn("Job de geração descartado: {}", ex.getMessage());
+        }
+    }
+}
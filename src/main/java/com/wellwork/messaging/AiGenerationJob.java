@@ -0,0 +1,3 @@
+package com.wellwork.messaging;
+
+public record AiGenerationJob(Long checkInId) {}
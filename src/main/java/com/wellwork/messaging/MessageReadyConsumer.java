@@ -0,0 +1,23 @@
+package com.wellwork.messaging;
+
+import com.wellwork.config.RabbitConfig;
+import com.wellwork.service.NotificationHub;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.stereotype.Service;
+
+@Service
+public class MessageReadyConsumer {
+
+    private final NotificationHub notificationHub;
+
+    public MessageReadyConsumer(NotificationHub notificationHub) {
+        this.notificationHub = notificationHub;
+    }
+
+    // fila anônima deste nó (exclusiva, removida quando o nó cai)
+    @RabbitListener(queues = "#{" + RabbitConfig.NOTIFICATIONS_QUEUE_BEAN + ".name}",
+            containerFactory = RabbitConfig.NOTIFICATIONS_CONTAINER_FACTORY)
+    public void onMessageReady(MessageReadyNotification notification) {
+        notificationHub.deliver(notification);
+    }
+}
@@ -0,0 +1,6 @@
+package com.wellwork.messaging;
+
+import java.time.Instant;
+
+public record MessageReadyNotification(Long userId, Long checkInId, Long messageId, String message,
+                                       Double confidence, Instant generatedAt) {}
@@ -0,0 +1,31 @@
+package com.wellwork.messaging;
+
+import com.wellwork.config.RabbitConfig;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.stereotype.Service;
+
+@Service
+public class MessageReadyProducer {
+
+    private final RabbitTemplate rabbitTemplate;
+    // conversor próprio: o RabbitTemplate compartilhado continua com o SimpleMessageConverter (welcome em texto)
+    private final MessageConverter converter = new Jackson2JsonMessageConverter();
+
+    public MessageReadyProducer(RabbitTemplate rabbitTemplate) {
+        this.rabbitTemplate = rabbitTemplate;
+    }
+
+    // fanout: cada nó da API recebe e entrega aos seus próprios assinantes
+    public void publish(MessageReadyNotification notification) {
+        MessageProperties props = new MessageProperties();
+        // notificação vale só para quem está conectado agora: não precisa sobreviver a restart do broker
+        props.setDeliveryMode(MessageDeliveryMode.NON_PERSISTENT);
+        Message message = converter.toMessage(notification, props);
+        rabbitTemplate.send(RabbitConfig.NOTIFICATIONS_EXCHANGE, "", message);
+    }
+}
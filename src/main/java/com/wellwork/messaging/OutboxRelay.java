@@ -0,0 +1,97 @@
+package com.wellwork.messaging;
+
+import com.wellwork.model.entities.OutboxMessage;
+import com.wellwork.service.OutboxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Publica as mensagens pendentes do outbox em lotes, num único canal com publisher confirms.
+ * Todos os nós rodam o relay: cada lote é reservado (lease) antes de publicar, então uma mensagem
+ * só é publicada por um nó. Entrega at-least-once: se o nó cair (ou o lease vencer) antes do markSent,
+ * o lote é reenviado.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxService outboxService;
+    private final RabbitTemplate rabbitTemplate;
+    private final int batchSize;
+    private final long confirmTimeoutMs;
+    private final Duration retention;
+    private final Duration lease;
+
+    public OutboxRelay(OutboxService outboxService,
+                       RabbitTemplate rabbitTemplate,
+                       @Value("${wellwork.outbox.batch-size:100}") int batchSize,
+                       @Value("${wellwork.outbox.confirm-timeout-ms:5000}") long confirmTimeoutMs,
+                       @Value("${wellwork.outbox.retention-hours:24}") long retentionHours,
+                       @Value("${wellwork.outbox.lease-ms:30000}") long leaseMs) {
+        this.outboxService = outboxService;
+        this.rabbitTemplate = rabbitTemplate;
+        this.batchSize = batchSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+        this.retention = Duration.ofHours(retentionHours);
+        this.lease = Duration.ofMillis(leaseMs);
+    }
+
+    @Scheduled(fixedDelayString = "${wellwork.outbox.poll-interval-ms:1000}")
+    public void relay() {
+        List<OutboxMessage> batch;
+        do {
+            batch = outboxService.claimPending(batchSize, lease);
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            List<OutboxMessage> pending = batch;
+            try {
+                rabbitTemplate.invoke(ops -> {
+                    for (OutboxMessage m : pending) {
+                        ops.send(m.getExchange(), m.getRoutingKey(), toAmqpMessage(m));
+                    }
+                    ops.waitForConfirmsOrDie(confirmTimeoutMs);
+                    return null;
+                });
+            } catch (AmqpException ex) {
+                log.warn("Falha ao publicar lote do outbox ({} mensagens), nova tentativa no próximo ciclo: {}",
+                        pending.size(), ex.getMessage());
+                return;
+            }
+
+            outboxService.markSent(pending.stream().map(OutboxMessage::getId).toList());
+        } while (batch.size() == batchSize);
+    }
+
+    @Scheduled(fixedDelayString = "${wellwork.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        int removed = outboxService.purgeSentBefore(Instant.now().minus(retention));
+        if (removed > 0) {
+            log.debug("Outbox: {} mensagens enviadas removidas", removed);
+        }
+    }
+
+    private Message toAmqpMessage(OutboxMessage m) {
+        return MessageBuilder.withBody(m.getPayload().getBytes(StandardCharsets.UTF_8))
+                .setContentType(m.getContentType())
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .setMessageId("outbox-" + m.getId())
+                .build();
+    }
+}
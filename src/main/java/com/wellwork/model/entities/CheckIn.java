@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.Instant;
@@ -13,12 +14,14 @@ import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 
 @Entity
-@Table(name = "checkins")
+@Table(name = "checkins", indexes = {
+        @Index(name = "idx_checkins_user_created", columnList = "user_id, created_at, id")
+})
 public class CheckIn {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_checkins")
-    @SequenceGenerator(name = "seq_checkins", sequenceName = "SEQ_CHECKINS", allocationSize = 1)
+    @SequenceGenerator(name = "seq_checkins", sequenceName = "SEQ_CHECKINS", allocationSize = 50)
     @Getter @Setter
     private Long id;
 
@@ -51,6 +54,13 @@ public class CheckIn {
     @Getter @Setter
     private GeneratedMessage generatedMessage;
 
+    // incrementada a cada update*() e ao gravar/regravar a mensagem (ETag de GET /api/checkins/{id})
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @Getter
+    private long version;
+
     public CheckIn() {}
 
     public CheckIn(Long id, User user, Mood mood, EnergyLevel energyLevel, String notes,
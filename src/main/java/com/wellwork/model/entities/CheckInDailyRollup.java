@@ -0,0 +1,29 @@
+package com.wellwork.model.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Quantidade de check-ins de um usuário num dia para uma combinação Mood × EnergyLevel.
+ * Mantida incrementalmente pelo WellbeingTrendService; nunca recalculada a partir de checkins.
+ */
+@Entity
+@Table(name = "checkin_daily_rollups")
+public class CheckInDailyRollup {
+
+    @EmbeddedId
+    @Getter @Setter
+    private CheckInDailyRollupId id;
+
+    @Column(name = "check_ins", nullable = false)
+    @Getter @Setter
+    private long checkIns;
+
+    public CheckInDailyRollup() {}
+
+    public CheckInDailyRollup(CheckInDailyRollupId id, long checkIns) {
+        this.id = id;
+        this.checkIns = checkIns;
+    }
+}
@@ -0,0 +1,46 @@
+package com.wellwork.model.entities;
+
+import com.wellwork.model.enums.EnergyLevel;
+import com.wellwork.model.enums.Mood;
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@EqualsAndHashCode
+public class CheckInDailyRollupId implements Serializable {
+
+    @Column(name = "user_id", nullable = false)
+    @Getter @Setter
+    private Long userId;
+
+    @Column(name = "bucket_date", nullable = false)
+    @Getter @Setter
+    private LocalDate day;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Getter @Setter
+    private Mood mood;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "energy_level", nullable = false)
+    @Getter @Setter
+    private EnergyLevel energyLevel;
+
+    public CheckInDailyRollupId() {}
+
+    public CheckInDailyRollupId(Long userId, LocalDate day, Mood mood, EnergyLevel energyLevel) {
+        this.userId = userId;
+        this.day = day;
+        this.mood = mood;
+        this.energyLevel = energyLevel;
+    }
+}
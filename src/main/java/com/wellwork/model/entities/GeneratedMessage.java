@@ -12,7 +12,7 @@ public class GeneratedMessage {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_generated_messages")
-    @SequenceGenerator(name = "seq_generated_messages", sequenceName = "SEQ_GENERATED_MESSAGES", allocationSize = 1)
+    @SequenceGenerator(name = "seq_generated_messages", sequenceName = "SEQ_GENERATED_MESSAGES", allocationSize = 50)
     @Getter @Setter
     private Long id;
 
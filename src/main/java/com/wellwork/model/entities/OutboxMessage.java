@@ -0,0 +1,68 @@
+package com.wellwork.model.entities;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Mensagem AMQP gravada na mesma transação do negócio e publicada depois pelo OutboxRelay.
+ */
+@Entity
+@Table(name = "outbox_messages", indexes = {
+        @Index(name = "idx_outbox_pending", columnList = "sent_at, id")
+})
+public class OutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_outbox_messages")
+    @SequenceGenerator(name = "seq_outbox_messages", sequenceName = "SEQ_OUTBOX_MESSAGES", allocationSize = 50)
+    @Getter @Setter
+    private Long id;
+
+    @Column(nullable = false)
+    @Getter @Setter
+    private String exchange;
+
+    @Column(name = "routing_key", nullable = false)
+    @Getter @Setter
+    private String routingKey;
+
+    @Lob
+    @Column(columnDefinition = "CLOB", nullable = false)
+    @Getter @Setter
+    private String payload;
+
+    @Column(name = "content_type", nullable = false)
+    @Getter @Setter
+    private String contentType;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    @Getter @Setter
+    private Instant createdAt;
+
+    @Column(name = "sent_at")
+    @Getter @Setter
+    private Instant sentAt;
+
+    // lease do OutboxRelay: só o nó dono de claimed_by publica a mensagem até claimed_until
+    @Column(name = "claimed_by", length = 64)
+    @Getter @Setter
+    private String claimedBy;
+
+    @Column(name = "claimed_until")
+    @Getter @Setter
+    private Instant claimedUntil;
+
+    public OutboxMessage() {}
+
+    public OutboxMessage(String exchange, String routingKey, String payload, String contentType) {
+        this.exchange = exchange;
+        this.routingKey = routingKey;
+        this.payload = payload;
+        this.contentType = contentType;
+    }
+}
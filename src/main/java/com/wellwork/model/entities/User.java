@@ -1,9 +1,11 @@
 package com.wellwork.model.entities;
 
+import com.wellwork.model.enums.Role;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -13,7 +15,8 @@ import java.util.List;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_users")
+    @SequenceGenerator(name = "seq_users", sequenceName = "SEQ_USERS", allocationSize = 50)
     @Getter @Setter
     private Long id;
 
@@ -27,6 +30,13 @@ public class User {
     @Getter @Setter
     private String password;
 
+    // atribuído direto no banco (não há endpoint para promover usuários); vai no JWT no login
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'USER'")
+    @Column(nullable = false, length = 20)
+    @Getter @Setter
+    private Role role = Role.USER;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     @Getter @Setter
     private List<CheckIn> checkIns = new ArrayList<>();
@@ -0,0 +1,18 @@
+package com.wellwork.model.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+public enum Granularity {
+    DAY, WEEK, MONTH;
+
+    // Início do bucket que contém o dia (semanas ISO, começando na segunda-feira)
+    public LocalDate bucketStart(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+}
@@ -0,0 +1,6 @@
+package com.wellwork.model.enums;
+
+// USER: padrão de todo cadastro. HR/ADMIN: acesso aos dados agregados da organização (/api/analytics)
+public enum Role {
+    USER, HR, ADMIN
+}
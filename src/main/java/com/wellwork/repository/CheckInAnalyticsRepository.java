@@ -0,0 +1,59 @@
+package com.wellwork.repository;
+
+import com.wellwork.model.enums.EnergyLevel;
+import com.wellwork.model.enums.Mood;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Leitura da tabela checkins inteira para o analytics da organização, em faixas de id.
+ * Só as colunas agregadas (mood, energy_level, created_at), JDBC puro e forward-only:
+ * cada faixa ocupa {@code fetchSize} linhas de heap, independentemente do tamanho da tabela.
+ */
+@Repository
+public class CheckInAnalyticsRepository {
+
+    private static final String BOUNDS_SQL = "select min(id), max(id) from checkins";
+
+    private static final String RANGE_SQL = "select mood, energy_level, created_at from checkins " +
+            "where id between ? and ? and created_at >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CheckInAnalyticsRepository(DataSource dataSource,
+                                      @Value("${wellwork.analytics.fetch-size:2000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    // faixa [min, max] de ids (resolvida pelo índice da PK); vazio se a tabela não tiver linhas
+    public Optional<IdRange> idRange() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(BOUNDS_SQL, (rs, rowNum) -> {
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new IdRange(min, rs.getLong(2));
+        }));
+    }
+
+    // percorre os check-ins com id em [fromId, toId] criados a partir de since
+    public void scanRange(long fromId, long toId, Instant since, RowVisitor visitor) {
+        jdbcTemplate.query(RANGE_SQL, (RowCallbackHandler) rs -> visitor.visit(
+                Mood.valueOf(rs.getString(1)),
+                EnergyLevel.valueOf(rs.getString(2)),
+                rs.getTimestamp(3).getTime()
+        ), fromId, toId, Timestamp.from(since));
+    }
+
+    public record IdRange(long min, long max) {}
+
+    @FunctionalInterface
+    public interface RowVisitor {
+        void visit(Mood mood, EnergyLevel energyLevel, long createdAtEpochMilli);
+    }
+}
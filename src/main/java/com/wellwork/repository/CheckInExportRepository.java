@@ -0,0 +1,63 @@
+package com.wellwork.repository;
+
+import com.wellwork.model.enums.EnergyLevel;
+import com.wellwork.model.enums.Mood;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Leitura forward-only do histórico completo de um usuário, linha a linha.
+ * JDBC puro (sem entidades nem persistence context) com fetch size fixo:
+ * o heap só guarda {@code fetchSize} linhas por vez, qualquer que seja o tamanho do histórico.
+ */
+@Repository
+public class CheckInExportRepository {
+
+    private static final String SQL = "select c.id, c.mood, c.energy_level, c.notes, c.created_at, " +
+            "gm.message, gm.confidence, gm.generated_at " +
+            "from checkins c left join generated_messages gm on gm.checkin_id = c.id " +
+            "where c.user_id = ? order by c.created_at, c.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CheckInExportRepository(DataSource dataSource,
+                                   @Value("${wellwork.checkins.export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    public void streamByUser(Long userId, Consumer<Row> consumer) {
+        jdbcTemplate.query(SQL, (RowCallbackHandler) rs -> consumer.accept(map(rs)), userId);
+    }
+
+    private static Row map(ResultSet rs) throws SQLException {
+        double confidence = rs.getDouble("confidence");
+        Double nullableConfidence = rs.wasNull() ? null : confidence;
+        return new Row(
+                rs.getLong("id"),
+                Mood.valueOf(rs.getString("mood")),
+                EnergyLevel.valueOf(rs.getString("energy_level")),
+                rs.getString("notes"),
+                toInstant(rs.getTimestamp("created_at")),
+                rs.getString("message"),
+                nullableConfidence,
+                toInstant(rs.getTimestamp("generated_at"))
+        );
+    }
+
+    private static Instant toInstant(Timestamp ts) {
+        return ts == null ? null : ts.toInstant();
+    }
+
+    public record Row(Long id, Mood mood, EnergyLevel energyLevel, String notes, Instant createdAt,
+                      String message, Double confidence, Instant generatedAt) {}
+}
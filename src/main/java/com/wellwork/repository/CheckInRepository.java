@@ -1,10 +1,70 @@
 package com.wellwork.repository;
 
+import com.wellwork.dto.CheckInResponseDTO;
+import com.wellwork.dto.CheckInVersionDTO;
 import com.wellwork.model.entities.CheckIn;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
 
 public interface CheckInRepository extends JpaRepository<CheckIn, Long> {
-    Page<CheckIn> findByUserId(Long userId, Pageable pageable);
+
+    // Projeções de leitura: check-in + mensagem num único SELECT (left join), sem carregar entidades.
+    // O @OneToOne inverso de CheckIn.generatedMessage não pode ser lazy, então ler entidades
+    // aqui custaria um SELECT extra em generated_messages por linha.
+    String RESPONSE_PROJECTION = "select new com.wellwork.dto.CheckInResponseDTO(" +
+            "c.id, c.user.id, c.mood, c.energyLevel, c.notes, c.createdAt, gm.message, c.version) " +
+            "from CheckIn c left join c.generatedMessage gm ";
+
+    @Query(RESPONSE_PROJECTION + "where c.id = :id")
+    Optional<CheckInResponseDTO> findResponseById(@Param("id") Long id);
+
+    // ETag da listagem: mesmo keyset das páginas, sem o CLOB de notas nem o join com generated_messages
+    String VERSION_PROJECTION = "select new com.wellwork.dto.CheckInVersionDTO(c.id, c.version, c.createdAt) " +
+            "from CheckIn c ";
+
+    // só a versão (ETag), lida pela PK sem tocar no CLOB nem em generated_messages
+    @Query("select c.version from CheckIn c where c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Escritas em check-ins existentes travam a linha: com @Version, duas escritas concorrentes
+    // falhariam com OptimisticLockException em vez de esperar uma pela outra
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from CheckIn c where c.id = :id")
+    Optional<CheckIn> findByIdForUpdate(@Param("id") Long id);
+
+    // Trava e já incrementa a versão: gravar a mensagem não altera nenhuma coluna de checkins
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    @Query("select c from CheckIn c where c.id = :id")
+    Optional<CheckIn> findByIdIncrementingVersion(@Param("id") Long id);
+
+    // Keyset: retorno em List (sem COUNT) e Pageable usado só como LIMIT; apoiado em idx_checkins_user_created
+    @Query(RESPONSE_PROJECTION + "where c.user.id = :userId order by c.createdAt desc, c.id desc")
+    List<CheckInResponseDTO> findFirstPage(@Param("userId") Long userId, Pageable limit);
+
+    @Query(RESPONSE_PROJECTION + "where c.user.id = :userId " +
+            "and (c.createdAt < :createdAt or (c.createdAt = :createdAt and c.id < :id)) " +
+            "order by c.createdAt desc, c.id desc")
+    List<CheckInResponseDTO> findPageAfter(@Param("userId") Long userId,
+                                           @Param("createdAt") OffsetDateTime createdAt,
+                                           @Param("id") Long id,
+                                           Pageable limit);
+
+    @Query(VERSION_PROJECTION + "where c.user.id = :userId order by c.createdAt desc, c.id desc")
+    List<CheckInVersionDTO> findFirstPageVersions(@Param("userId") Long userId, Pageable limit);
+
+    @Query(VERSION_PROJECTION + "where c.user.id = :userId " +
+            "and (c.createdAt < :createdAt or (c.createdAt = :createdAt and c.id < :id)) " +
+            "order by c.createdAt desc, c.id desc")
+    List<CheckInVersionDTO> findPageVersionsAfter(@Param("userId") Long userId,
+                                                  @Param("createdAt") OffsetDateTime createdAt,
+                                                  @Param("id") Long id,
+                                                  Pageable limit);
 }
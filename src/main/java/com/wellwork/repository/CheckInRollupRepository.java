@@ -0,0 +1,25 @@
+package com.wellwork.repository;
+
+import com.wellwork.model.entities.CheckInDailyRollup;
+import com.wellwork.model.entities.CheckInDailyRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// increment(...) vem de CheckInRollupRepositoryCustom (JDBC, com retry do MERGE)
+public interface CheckInRollupRepository extends JpaRepository<CheckInDailyRollup, CheckInDailyRollupId>,
+        CheckInRollupRepositoryCustom {
+
+    @Query("select r from CheckInDailyRollup r where r.id.userId = :userId and r.id.day >= :from and r.id.day <= :to")
+    List<CheckInDailyRollup> findByUserBetween(@Param("userId") Long userId,
+                                               @Param("from") LocalDate from,
+                                               @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("delete from CheckInDailyRollup r where r.id.userId = :userId")
+    int deleteByUser(@Param("userId") Long userId);
+}
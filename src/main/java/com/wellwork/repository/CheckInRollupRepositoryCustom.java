@@ -0,0 +1,9 @@
+package com.wellwork.repository;
+
+import java.time.LocalDate;
+
+public interface CheckInRollupRepositoryCustom {
+
+    // Soma delta ao contador do dia; delta negativo (PATCH) nunca cria linha nem deixa o contador abaixo de zero.
+    void increment(Long userId, LocalDate day, String mood, String energyLevel, long delta);
+}
@@ -0,0 +1,46 @@
+package com.wellwork.repository;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Upsert do contador diário via MERGE.
+ * O MERGE do Oracle não é atômico sob concorrência: duas transações que não encontram a linha
+ * inserem as duas e a segunda falha na PK (ORA-00001). Nesse caso o MERGE é repetido uma vez e
+ * cai no WHEN MATCHED. Roda em JDBC (mesma conexão da transação JPA) porque uma falha dentro de uma
+ * query do Hibernate marcaria a transação inteira como rollback-only; no Oracle só o comando falho é desfeito.
+ */
+public class CheckInRollupRepositoryCustomImpl implements CheckInRollupRepositoryCustom {
+
+    private static final String MERGE_SQL =
+            "MERGE INTO checkin_daily_rollups r " +
+            "USING (SELECT ? AS user_id, ? AS bucket_date, ? AS mood, ? AS energy_level, ? AS delta FROM dual) s " +
+            "ON (r.user_id = s.user_id AND r.bucket_date = s.bucket_date AND r.mood = s.mood AND r.energy_level = s.energy_level) " +
+            "WHEN MATCHED THEN UPDATE SET r.check_ins = GREATEST(r.check_ins + s.delta, 0) " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, bucket_date, mood, energy_level, check_ins) " +
+            "VALUES (s.user_id, s.bucket_date, s.mood, s.energy_level, s.delta) WHERE s.delta > 0";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CheckInRollupRepositoryCustomImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void increment(Long userId, LocalDate day, String mood, String energyLevel, long delta) {
+        try {
+            merge(userId, day, mood, energyLevel, delta);
+        } catch (DataIntegrityViolationException ex) {
+            // outra transação inseriu a mesma linha entre o ON e o INSERT: agora ela existe
+            merge(userId, day, mood, energyLevel, delta);
+        }
+    }
+
+    private void merge(Long userId, LocalDate day, String mood, String energyLevel, long delta) {
+        jdbcTemplate.update(MERGE_SQL, userId, Date.valueOf(day), mood, energyLevel, delta);
+    }
+}
@@ -6,4 +6,6 @@ import java.util.Optional;
 
 public interface GeneratedMessageRepository extends JpaRepository<GeneratedMessage, Long> {
     Optional<GeneratedMessage> findByCheckInId(Long checkInId);
+
+    boolean existsByCheckInId(Long checkInId);
 }
@@ -0,0 +1,39 @@
+package com.wellwork.repository;
+
+import com.wellwork.model.entities.OutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    // Reserva até :limit pendentes sem lease válido. Se outro nó travar a mesma linha no meio tempo,
+    // o Oracle reavalia o WHERE após o lock (write consistency): cada linha fica com um único claim.
+    @Modifying
+    @Query(nativeQuery = true, value =
+            "UPDATE outbox_messages SET claimed_by = :claim, claimed_until = :until " +
+            "WHERE sent_at IS NULL AND (claimed_until IS NULL OR claimed_until < :now) " +
+            "AND id IN (SELECT id FROM outbox_messages " +
+            "WHERE sent_at IS NULL AND (claimed_until IS NULL OR claimed_until < :now) " +
+            "ORDER BY id FETCH FIRST :limit ROWS ONLY)")
+    int claim(@Param("claim") String claim,
+              @Param("until") Instant until,
+              @Param("now") Instant now,
+              @Param("limit") int limit);
+
+    @Query("select o from OutboxMessage o where o.claimedBy = :claim and o.sentAt is null order by o.id")
+    List<OutboxMessage> findClaimed(@Param("claim") String claim);
+
+    @Modifying
+    @Query("update OutboxMessage o set o.sentAt = :sentAt where o.id in :ids and o.sentAt is null")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Instant sentAt);
+
+    @Modifying
+    @Query("delete from OutboxMessage o where o.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,18 @@
+package com.wellwork.security;
+
+import com.wellwork.model.enums.Role;
+
+import java.security.Principal;
+
+/**
+ * Principal colocado no SecurityContext pelo JwtAuthFilter.
+ * {@code id} vem do claim "uid" do token; é null em tokens emitidos antes desse claim existir.
+ * {@code role} vem do claim "role"; tokens sem ele valem como {@link Role#USER}.
+ */
+public record AuthenticatedUser(Long id, String username, Role role) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -1,46 +1,125 @@
 package com.wellwork.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import com.wellwork.model.enums.Role;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
 
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+
     private final SecretKey secretKey;
+    // JwtParser é imutável e thread-safe: construído uma vez só
+    private final JwtParser parser;
+    // tokens já verificados, indexados pelo SHA-256 do token e expirando junto com o "exp"
+    private final Cache<String, VerifiedToken> verifiedTokens;
 
-    public JwtUtil(@Value("${jwt.secret:12345678901234567890123456789012}") String secret) {
+    public JwtUtil(@Value("${jwt.secret:12345678901234567890123456789012}") String secret,
+                   @Value("${wellwork.security.jwt.cache-size:10000}") long cacheSize,
+                   MeterRegistry meterRegistry) {
         this.secretKey = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt-tokens");
     }
 
-    // Gera token
-    public String generateToken(String username) {
+    // Gera token (id e role vão nos claims "uid"/"role" para evitar lookup no banco a cada request;
+    // mudança de role vale a partir do próximo login)
+    public String generateToken(Long userId, String username, Role role) {
         long expirationMillis = 1000 * 60 * 60 * 24; // 24h
 
         return Jwts.builder()
                 .setSubject(username)
+                .claim(USER_ID_CLAIM, userId)
+                .claim(ROLE_CLAIM, role.name())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + expirationMillis))
                 .signWith(secretKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    // Valida token e retorna username, ou null se inválido
-    public String validateTokenAndGetUsername(String token) {
+    // Valida token e retorna o usuário autenticado, ou null se inválido
+    public AuthenticatedUser validateToken(String token) {
+        String key = digest(token);
+        VerifiedToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null && cached.expiresAtMillis() > System.currentTimeMillis()) {
+            return cached.user();
+        }
+
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody()
-                    .getSubject();
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            String role = claims.get(ROLE_CLAIM, String.class);
+            AuthenticatedUser user = new AuthenticatedUser(claims.get(USER_ID_CLAIM, Long.class), claims.getSubject(),
+                    role == null ? Role.USER : Role.valueOf(role));
+            // tokens sem "exp" não são cacheados: não há momento seguro para descartá-los
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(key, new VerifiedToken(user, claims.getExpiration().getTime()));
+            }
+            return user;
         } catch (Exception e) {
             return null;
         }
     }
+
+    // Valida token e retorna username, ou null se inválido
+    public String validateTokenAndGetUsername(String token) {
+        AuthenticatedUser user = validateToken(token);
+        return user == null ? null : user.username();
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private record VerifiedToken(AuthenticatedUser user, long expiresAtMillis) {}
+
+    private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            long remainingMillis = value.expiresAtMillis() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
@@ -0,0 +1,164 @@
+package com.wellwork.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets em memória para o login, consultados antes do BCrypt:
+ * <ul>
+ *     <li>por IP: toda tentativa consome um token (credential stuffing varia o username);</li>
+ *     <li>por username: toda tentativa também consome já na checagem (senão uma rajada concorrente
+ *     passaria inteira antes da primeira falha ser registrada); um login correto zera o bucket e
+ *     uma tentativa que nem chegou a verificar a senha devolve o token.</li>
+ * </ul>
+ * Cada bucket é protegido por um lock de uma tabela fixa (lock striping): chaves diferentes
+ * raramente disputam o mesmo lock e a memória dos locks não cresce com o número de chaves.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    private final BucketTable byIp;
+    private final BucketTable byUsername;
+    private final Counter throttledByIp;
+    private final Counter throttledByUsername;
+
+    public LoginAttemptLimiter(MeterRegistry meterRegistry,
+                               @Value("${wellwork.security.login.ip.capacity:30}") int ipCapacity,
+                               @Value("${wellwork.security.login.ip.refill-per-minute:30}") double ipRefillPerMinute,
+                               @Value("${wellwork.security.login.username.capacity:5}") int usernameCapacity,
+                               @Value("${wellwork.security.login.username.refill-per-minute:1}") double usernameRefillPerMinute,
+                               @Value("${wellwork.security.login.max-keys:100000}") long maxKeys,
+                               @Value("${wellwork.security.login.stripes:64}") int stripes) {
+        this.byIp = new BucketTable(ipCapacity, ipRefillPerMinute, maxKeys, stripes);
+        this.byUsername = new BucketTable(usernameCapacity, usernameRefillPerMinute, maxKeys, stripes);
+        this.throttledByIp = throttledCounter(meterRegistry, "ip");
+        this.throttledByUsername = throttledCounter(meterRegistry, "username");
+    }
+
+    /**
+     * @throws LoginThrottledException se o IP ou o username estiverem sem tokens
+     */
+    public void checkAllowed(String username, String clientIp) {
+        long ipWait = byIp.tryConsume(clientIp);
+        if (ipWait > 0) {
+            throttledByIp.increment();
+            throw new LoginThrottledException(Duration.ofNanos(ipWait));
+        }
+        long usernameWait = byUsername.tryConsume(key(username));
+        if (usernameWait > 0) {
+            throttledByUsername.increment();
+            throw new LoginThrottledException(Duration.ofNanos(usernameWait));
+        }
+    }
+
+    // o token do username já foi consumido em checkAllowed: sucesso zera o bucket
+    public void recordSuccess(String username) {
+        byUsername.reset(key(username));
+    }
+
+    // tentativa que não verificou a senha (ex.: pool de hash cheio): devolve o token do username
+    public void release(String username) {
+        byUsername.refund(key(username));
+    }
+
+    private static String key(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Counter throttledCounter(MeterRegistry registry, String scope) {
+        return Counter.builder("wellwork.auth.login.throttled")
+                .description("Logins recusados pelo limitador antes do hash")
+                .tag("scope", scope)
+                .register(registry);
+    }
+
+    static final class BucketTable {
+
+        private final Cache<String, Bucket> buckets;
+        private final ReentrantLock[] locks;
+        private final double capacity;
+        private final double tokensPerNano;
+
+        BucketTable(int capacity, double refillPerMinute, long maxKeys, int stripes) {
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerMinute / Duration.ofMinutes(1).toNanos();
+            // bucket ocioso por tempo suficiente para encher de novo equivale a um bucket novo
+            long fullRefillNanos = (long) Math.ceil(capacity / tokensPerNano);
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(Duration.ofNanos(fullRefillNanos))
+                    .build();
+            this.locks = new ReentrantLock[stripes];
+            for (int i = 0; i < stripes; i++) {
+                locks[i] = new ReentrantLock();
+            }
+        }
+
+        // 0 se consumiu um token; senão, nanos até o próximo token
+        long tryConsume(String key) {
+            ReentrantLock lock = lockFor(key);
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                Bucket bucket = buckets.get(key, k -> new Bucket(capacity, now));
+                refill(bucket, now);
+                if (bucket.tokens >= 1) {
+                    bucket.tokens -= 1;
+                    return 0;
+                }
+                return nanosUntilToken(bucket);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void refund(String key) {
+            ReentrantLock lock = lockFor(key);
+            lock.lock();
+            try {
+                Bucket bucket = buckets.getIfPresent(key);
+                if (bucket != null) {
+                    bucket.tokens = Math.min(capacity, bucket.tokens + 1);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void reset(String key) {
+            buckets.invalidate(key);
+        }
+
+        private void refill(Bucket bucket, long now) {
+            bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.lastRefillNanos) * tokensPerNano);
+            bucket.lastRefillNanos = now;
+        }
+
+        private long nanosUntilToken(Bucket bucket) {
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        }
+
+        private ReentrantLock lockFor(String key) {
+            return locks[Math.floorMod(key.hashCode(), locks.length)];
+        }
+    }
+
+    // mutável, sempre acessado sob o lock da sua faixa
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefillNanos;
+
+        private Bucket(double tokens, long lastRefillNanos) {
+            this.tokens = tokens;
+            this.lastRefillNanos = lastRefillNanos;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.wellwork.security;
+
+import java.time.Duration;
+
+/**
+ * Tentativa de login recusada pelo LoginAttemptLimiter, antes de qualquer hash.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public LoginThrottledException(Duration retryAfter) {
+        super("Muitas tentativas de login. Tente novamente em " + Math.max(1, retryAfter.toSeconds()) + "s");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,56 @@
+package com.wellwork.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token buckets em memória, sem locks: cada bucket é um estado imutável trocado por CAS.
+ * O mapa é limitado ({@code maxKeys}) e descarta buckets ociosos; um bucket descartado volta cheio,
+ * então {@code idleTimeout} deve ser maior que o tempo de recarga completa das regras.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private static final double NANOS_PER_MINUTE = Duration.ofMinutes(1).toNanos();
+
+    private final Cache<String, AtomicReference<State>> buckets;
+
+    public InMemoryRateLimitStore(long maxKeys, Duration idleTimeout) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleTimeout)
+                .build();
+    }
+
+    @Override
+    public RateLimitDecision tryConsume(String key, int capacity, double refillPerMinute) {
+        double tokensPerNano = refillPerMinute / NANOS_PER_MINUTE;
+        AtomicReference<State> ref = buckets.get(key, k -> new AtomicReference<>(new State(capacity, System.nanoTime())));
+
+        while (true) {
+            State current = ref.get();
+            long now = System.nanoTime();
+            double tokens = Math.min(capacity, current.tokens() + (now - current.updatedAt()) * tokensPerNano);
+
+            if (tokens < 1) {
+                // sem escrita: recusar não altera o bucket
+                return new RateLimitDecision(false, capacity, 0,
+                        nanos((1 - tokens) / tokensPerNano), nanos((capacity - tokens) / tokensPerNano));
+            }
+
+            State next = new State(tokens - 1, now);
+            if (ref.compareAndSet(current, next)) {
+                return new RateLimitDecision(true, capacity, (long) next.tokens(),
+                        Duration.ZERO, nanos((capacity - next.tokens()) / tokensPerNano));
+            }
+        }
+    }
+
+    private static Duration nanos(double value) {
+        return Duration.ofNanos((long) Math.ceil(value));
+    }
+
+    private record State(double tokens, long updatedAt) {}
+}
@@ -0,0 +1,13 @@
+package com.wellwork.security.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Resultado de uma tentativa de consumo num bucket.
+ *
+ * @param limit      capacidade do bucket
+ * @param remaining  tokens restantes após a tentativa
+ * @param retryAfter espera até o próximo token (só relevante quando {@code allowed} é false)
+ * @param reset      tempo até o bucket voltar a ficar cheio
+ */
+public record RateLimitDecision(boolean allowed, long limit, long remaining, Duration retryAfter, Duration reset) {}
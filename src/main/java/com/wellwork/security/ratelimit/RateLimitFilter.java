@@ -0,0 +1,119 @@
+package com.wellwork.security.ratelimit;
+
+import com.wellwork.security.AuthenticatedUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Aplica as cotas de {@link RateLimitProperties} depois do JwtAuthFilter, quando o usuário já é conhecido.
+ * Excedida alguma regra: 429 com Retry-After. Respostas liberadas levam os headers RateLimit-* da regra
+ * mais apertada. Não é um @Component: é registrado só na cadeia do Spring Security (SecurityConfig).
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final RateLimitStore store;
+    private final List<RateLimitProperties.Rule> rules;
+    private final Map<String, Counter> rejected;
+
+    public RateLimitFilter(RateLimitStore store, RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.rules = properties.enabled() ? properties.rules() : List.of();
+        this.rejected = rules.stream().collect(Collectors.toMap(RateLimitProperties.Rule::name,
+                rule -> Counter.builder("wellwork.ratelimit.rejected")
+                        .description("Requisições recusadas por cota")
+                        .tag("rule", rule.name())
+                        .register(meterRegistry),
+                (a, b) -> a));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+
+        // caminho decodificado, o mesmo que o MVC usa para rotear: "generate%2Dmessage" não escapa da regra
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        String subject = null;
+        RateLimitDecision tightest = null;
+
+        for (RateLimitProperties.Rule rule : rules) {
+            if (!matches(rule, request.getMethod(), path)) {
+                continue;
+            }
+            if (subject == null) {
+                subject = subject(request);
+            }
+
+            RateLimitDecision decision = store.tryConsume(rule.name() + ":" + subject, rule.capacity(), rule.refillPerMinute());
+            if (!decision.allowed()) {
+                rejected.get(rule.name()).increment();
+                reject(response, rule, decision);
+                return;
+            }
+            if (tightest == null || decision.remaining() < tightest.remaining()) {
+                tightest = decision;
+            }
+        }
+
+        if (tightest != null) {
+            writeHeaders(response, tightest);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static boolean matches(RateLimitProperties.Rule rule, String method, String path) {
+        if (rule.method() != null && !rule.method().isBlank() && !rule.method().equalsIgnoreCase(method)) {
+            return false;
+        }
+        return MATCHER.match(rule.path(), path);
+    }
+
+    // usuário autenticado pelo JwtAuthFilter; sem token, o IP do cliente (getRemoteAddr; X-Forwarded-For só com forward-headers-strategy=native)
+    private static String subject(HttpServletRequest request) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof AuthenticatedUser user) {
+            return "user:" + (user.id() != null ? user.id() : user.username());
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, RateLimitProperties.Rule rule,
+                               RateLimitDecision decision) throws IOException {
+        writeHeaders(response, decision);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds(decision.retryAfter())));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"error\":\"Limite de requisições excedido\",\"rule\":\"" + rule.name() + "\"}");
+    }
+
+    private static void writeHeaders(HttpServletResponse response, RateLimitDecision decision) {
+        response.setHeader("RateLimit-Limit", String.valueOf(decision.limit()));
+        response.setHeader("RateLimit-Remaining", String.valueOf(decision.remaining()));
+        response.setHeader("RateLimit-Reset", String.valueOf(seconds(decision.reset())));
+    }
+
+    private static long seconds(Duration duration) {
+        return Math.max(1, (long) Math.ceil(duration.toMillis() / 1000.0));
+    }
+}
@@ -0,0 +1,27 @@
+package com.wellwork.security.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Cotas por usuário (ou IP, sem token) e por endpoint. Todas as regras que casam com a requisição
+ * são aplicadas, cada uma com seu próprio bucket.
+ */
+@ConfigurationProperties(prefix = "wellwork.rate-limit")
+public record RateLimitProperties(Boolean enabled, Long maxKeys, Duration idleTimeout, List<Rule> rules) {
+
+    public RateLimitProperties {
+        enabled = enabled == null || enabled;
+        maxKeys = maxKeys == null ? 100_000L : maxKeys;
+        idleTimeout = idleTimeout == null ? Duration.ofMinutes(10) : idleTimeout;
+        rules = rules == null ? List.of() : List.copyOf(rules);
+    }
+
+    /**
+     * @param method método HTTP (vazio = qualquer)
+     * @param path   padrão Ant sobre o caminho decodificado, sem o context path
+     */
+    public record Rule(String name, String method, String path, int capacity, double refillPerMinute) {}
+}
@@ -0,0 +1,11 @@
+package com.wellwork.security.ratelimit;
+
+/**
+ * Armazenamento dos token buckets do RateLimitFilter.
+ * O padrão é {@link InMemoryRateLimitStore} (um bucket por nó); para cotas compartilhadas entre nós,
+ * registre outro bean RateLimitStore (ex.: Redis com script atômico) e o padrão deixa de ser criado.
+ */
+public interface RateLimitStore {
+
+    RateLimitDecision tryConsume(String key, int capacity, double refillPerMinute);
+}
@@ -2,70 +2,223 @@ package com.wellwork.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wellwork.config.AiConfig;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class AIService {
 
+    private static final Logger log = LoggerFactory.getLogger(AIService.class);
+
+    private static final String STREAM_DONE = "[DONE]";
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_STRING = new ParameterizedTypeReference<>() {};
+
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
     private final String model;
     private final Duration timeout;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
 
-    public AIService(@Value("${groq.api.key}") String apiKey,
-                     @Value("${groq.base-url:https://api.groq.com}") String baseUrl,
+    public AIService(@Qualifier(AiConfig.GROQ_WEB_CLIENT) WebClient webClient,
                      @Value("${groq.model:llama-3.1-8b-instant}") String model,
                      @Value("${groq.timeout-seconds:30}") long timeoutSeconds,
+                     @Value("${groq.retry.max-attempts:3}") int maxAttempts,
+                     @Value("${groq.retry.initial-backoff-ms:500}") long initialBackoffMs,
+                     @Value("${groq.retry.max-backoff-ms:8000}") long maxBackoffMs,
+                     CircuitBreakerRegistry circuitBreakerRegistry,
+                     BulkheadRegistry bulkheadRegistry,
                      ObjectMapper objectMapper) {
-        this.webClient = WebClient.builder()
-                .baseUrl(baseUrl)
-                .defaultHeader("Authorization", "Bearer " + apiKey)
-                .build();
+        this.webClient = webClient;
         this.objectMapper = objectMapper;
         this.model = model;
         this.timeout = Duration.ofSeconds(timeoutSeconds);
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(AiConfig.GROQ_RESILIENCE);
+        this.bulkhead = bulkheadRegistry.bulkhead(AiConfig.GROQ_RESILIENCE);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofMillis(initialBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
     }
 
+    /**
+     * Chamada não bloqueante à Groq. Nenhuma thread fica presa aguardando a resposta;
+     * quem compõe o Mono decide onde (e se) bloquear.
+     * Cada tentativa passa pelo circuit breaker e pelo bulkhead "groq"; 429/5xx/timeouts são
+     * retentados com backoff exponencial + jitter (ou o Retry-After da Groq).
+     * Falhas nunca viram mensagem vazia: indisponibilidade sai como {@link AiUnavailableException}.
+     */
+    public Mono<Result> generateMessageAsync(String prompt) {
+        return Mono.defer(() -> request(payload(prompt, false), MediaType.APPLICATION_JSON)
+                        .bodyToMono(String.class)
+                        .timeout(timeout))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .retryWhen(retrySpec())
+                .map(this::parseResult)
+                .onErrorMap(AIService::isUnavailable,
+                        ex -> new AiUnavailableException("Groq indisponível: " + ex.getMessage(), ex));
+    }
+
+    /**
+     * Completion em streaming ({@code stream: true}): emite os trechos de texto conforme a Groq os gera.
+     * Passa pelo mesmo circuit breaker e bulkhead, mas sem retry: tokens já entregues não podem ser refeitos.
+     * O timeout vale entre trechos consecutivos.
+     */
+    public Flux<String> streamMessage(String prompt) {
+        return Flux.defer(() -> request(payload(prompt, true), MediaType.TEXT_EVENT_STREAM)
+                        .bodyToFlux(SSE_STRING))
+                .timeout(timeout)
+                .map(event -> event.data() == null ? "" : event.data())
+                .takeWhile(data -> !STREAM_DONE.equals(data.trim()))
+                .filter(data -> !data.isBlank())
+                .map(this::parseDelta)
+                .filter(delta -> !delta.isEmpty())
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .onErrorMap(AIService::isUnavailable,
+                        ex -> new AiUnavailableException("Groq indisponível: " + ex.getMessage(), ex));
+    }
 
+    /**
+     * Versão bloqueante, mantida para workers em background (executor / listeners).
+     * Não usar em threads de request.
+     */
     public Result generateMessage(String prompt) {
+        return generateMessageAsync(prompt).block();
+    }
+
+    private Map<String, Object> payload(String prompt, boolean stream) {
+        return Map.of(
+                "model", model,
+                "messages", List.of(
+                        Map.of("role", "user", "content", prompt)
+                ),
+                "max_tokens", 200,
+                "temperature", 0.2,
+                "stream", stream
+        );
+    }
+
+    private WebClient.ResponseSpec request(Map<String, Object> payload, MediaType accept) {
+        return webClient.post()
+                .uri("/openai/v1/chat/completions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(accept)
+                .bodyValue(payload)
+                .retrieve()
+                .onStatus(
+                        HttpStatusCode::isError,
+                        clientResponse -> clientResponse.bodyToMono(String.class)
+                                .defaultIfEmpty("")
+                                .map(errorBody -> new GroqApiException(
+                                        clientResponse.statusCode().value(),
+                                        retryAfter(clientResponse.headers().asHttpHeaders()),
+                                        errorBody))
+                );
+    }
+
+    // tentativa n (0-based): base = initial * 2^n limitada a maxBackoff, sorteada em [base/2, base]
+    private Retry retrySpec() {
+        return Retry.from(signals -> signals.concatMap(signal -> {
+            Throwable failure = signal.failure();
+            if (!isTransient(failure) || signal.totalRetries() + 1 >= maxAttempts) {
+                return Mono.<Long>error(failure);
+            }
+
+            Optional<Duration> retryAfter = failure instanceof GroqApiException api ? api.getRetryAfter() : Optional.empty();
+            if (retryAfter.isPresent() && retryAfter.get().compareTo(maxBackoff) > 0) {
+                // a Groq pediu para esperar mais do que toleramos: desiste já
+                return Mono.<Long>error(failure);
+            }
+
+            Duration delay = retryAfter.orElseGet(() -> jitteredBackoff(signal.totalRetries()));
+            log.debug("Groq falhou ({}), tentativa {} em {} ms", failure.getMessage(), signal.totalRetries() + 2, delay.toMillis());
+            return Mono.delay(delay);
+        }));
+    }
+
+    private Duration jitteredBackoff(long retry) {
+        long base = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(retry, 20));
+        return Duration.ofMillis(base / 2 + ThreadLocalRandom.current().nextLong(base / 2 + 1));
+    }
+
+    private static boolean isTransient(Throwable ex) {
+        return (ex instanceof GroqApiException api && api.isTransient())
+                || ex instanceof TimeoutException
+                || ex instanceof WebClientRequestException;
+    }
+
+    private static boolean isUnavailable(Throwable ex) {
+        return isTransient(ex) || ex instanceof CallNotPermittedException || ex instanceof BulkheadFullException;
+    }
+
+    // Retry-After em segundos ou como data HTTP
+    private static Duration retryAfter(HttpHeaders headers) {
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
         try {
-            Map<String, Object> payload = Map.of(
-                    "model", model,
-                    "messages", List.of(
-                            Map.of("role", "user", "content", prompt)
-                    ),
-                    "max_tokens", 200,
-                    "temperature", 0.2
-            );
-
-            Mono<String> respMono = webClient.post()
-                    .uri("/openai/v1/chat/completions")
-                    .contentType(MediaType.APPLICATION_JSON)
-                    .bodyValue(payload)
-                    .retrieve()
-                    .onStatus(
-                            status -> status.isError(),
-                            clientResponse -> clientResponse.bodyToMono(String.class)
-                                    .flatMap(errorBody -> Mono.error(
-                                            new RuntimeException("Erro da Groq: " + errorBody)
-                                    ))
-                    )
-                    .bodyToMono(String.class)
-                    .timeout(timeout);
-
-            String respBody = respMono.block(timeout);
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException notSeconds) {
+            try {
+                Duration d = Duration.between(ZonedDateTime.now(),
+                        ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return d.isNegative() ? Duration.ZERO : d;
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
 
+    // chunk do stream: {"choices":[{"delta":{"content":"..."}}]}
+    private String parseDelta(String chunk) {
+        try {
+            JsonNode content = objectMapper.readTree(chunk).path("choices").path(0).path("delta").path("content");
+            return content.isTextual() ? content.asText() : "";
+        } catch (Exception ex) {
+            throw new RuntimeException("Chunk inválido no stream da Groq", ex);
+        }
+    }
+
+    private Result parseResult(String respBody) {
+        Result result;
+        try {
             JsonNode root = objectMapper.readTree(respBody);
 
             String messageText = "";
@@ -85,16 +238,16 @@ public class AIService {
                 }
             }
 
-            // ❌ Removido o acréscimo da confiança no texto
-            return new Result(messageText.trim(), Optional.ofNullable(confidence));
-
+            result = new Result(messageText.trim(), Optional.ofNullable(confidence));
         } catch (Exception ex) {
-            ex.printStackTrace();
-            return new Result("", Optional.empty());
+            throw new RuntimeException("Resposta inválida da Groq", ex);
         }
-    }
-
 
+        if (result.message().isEmpty()) {
+            throw new RuntimeException("Resposta vazia da Groq");
+        }
+        return result;
+    }
 
     public static record Result(String message, Optional<Double> confidence) { }
 }
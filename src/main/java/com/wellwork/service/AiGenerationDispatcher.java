@@ -0,0 +1,74 @@
+package com.wellwork.service;
+
+import com.wellwork.config.AsyncConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enfileira a geração de mensagens AI no executor dedicado e mede espera em fila e duração.
+ * Tarefas rejeitadas (fila cheia) não são reprocessadas: o check-in fica sem mensagem
+ * e o cliente pode pedir a geração via POST /api/checkins/{id}/generate-message.
+ */
+@Service
+public class AiGenerationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(AiGenerationDispatcher.class);
+
+    private final ThreadPoolTaskExecutor executor;
+    private final GeneratedMessageService generatedMessageService;
+    private final MeterRegistry meterRegistry;
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    public AiGenerationDispatcher(@Qualifier(AsyncConfig.AI_GENERATION_EXECUTOR) ThreadPoolTaskExecutor executor,
+                                  GeneratedMessageService generatedMessageService,
+                                  MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.generatedMessageService = generatedMessageService;
+        this.meterRegistry = meterRegistry;
+        this.queueWait = Timer.builder("wellwork.ai.generation.queue.wait")
+                .description("Tempo entre o enfileiramento e o início da geração")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("wellwork.ai.generation.rejected")
+                .description("Gerações descartadas por fila cheia")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return false se a fila estiver cheia e a geração foi descartada
+     */
+    public boolean dispatch(Long checkInId) {
+        long enqueuedAt = System.nanoTime();
+        try {
+            executor.execute(() -> run(checkInId, enqueuedAt));
+            return true;
+        } catch (TaskRejectedException ex) {
+            rejected.increment();
+            log.warn("Fila de geração AI cheia, descartando checkIn {}", checkInId);
+            return false;
+        }
+    }
+
+    private void run(Long checkInId, long enqueuedAt) {
+        queueWait.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            generatedMessageService.generateForCheckIn(checkInId);
+        } catch (Exception ex) {
+            outcome = "error";
+            log.error("Falha ao gerar mensagem AI para checkIn {}", checkInId, ex);
+        } finally {
+            sample.stop(meterRegistry.timer("wellwork.ai.generation.duration", "outcome", outcome));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.wellwork.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estágio de coalescência entre o AiResponseCache e o AIService.
+ * Pedidos de geração entram numa fila limitada e são agrupados em janelas de até
+ * {@code batchSize} itens ou {@code window}; prompts idênticos na mesma janela viram uma única
+ * chamada, e as chamadas distintas saem com no máximo {@code concurrency} em voo no nó.
+ * Cada chamador recebe o resultado (ou o erro) da chamada do seu prompt.
+ */
+@Component
+public class AiRequestCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(AiRequestCoalescer.class);
+
+    private final AIService aiService;
+    private final boolean enabled;
+    private final Sinks.Many<Pending> queue;
+    private final Disposable pipeline;
+    private final DistributionSummary batchSize;
+    private final DistributionSummary distinctPrompts;
+    private final Timer queueDelay;
+    private final Counter rejected;
+
+    public AiRequestCoalescer(AIService aiService,
+                              MeterRegistry meterRegistry,
+                              @Value("${wellwork.ai.coalescer.enabled:true}") boolean enabled,
+                              @Value("${wellwork.ai.coalescer.window-ms:50}") long windowMs,
+                              @Value("${wellwork.ai.coalescer.batch-size:32}") int maxBatchSize,
+                              @Value("${wellwork.ai.coalescer.concurrency:16}") int concurrency,
+                              @Value("${wellwork.ai.coalescer.queue-capacity:2048}") int queueCapacity) {
+        this.aiService = aiService;
+        this.enabled = enabled;
+        this.batchSize = DistributionSummary.builder("wellwork.ai.coalescer.batch.size")
+                .description("Pedidos por janela de coalescência")
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+        this.distinctPrompts = DistributionSummary.builder("wellwork.ai.coalescer.batch.distinct")
+                .description("Chamadas à Groq por janela, após deduplicar prompts")
+                .register(meterRegistry);
+        this.queueDelay = Timer.builder("wellwork.ai.coalescer.queue.delay")
+                .description("Tempo entre o pedido e o envio à Groq")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("wellwork.ai.coalescer.rejected")
+                .description("Pedidos recusados por fila cheia")
+                .register(meterRegistry);
+
+        this.queue = Sinks.many().unicast().onBackpressureBuffer(Queues.<Pending>get(queueCapacity).get());
+        this.pipeline = queue.asFlux()
+                .bufferTimeout(maxBatchSize, Duration.ofMillis(windowMs), true)
+                .concatMapIterable(this::dedupe)
+                .flatMap(this::call, concurrency)
+                .subscribe();
+    }
+
+    public Mono<AIService.Result> submit(String prompt) {
+        if (!enabled) {
+            return aiService.generateMessageAsync(prompt);
+        }
+        return Mono.defer(() -> {
+            Pending pending = new Pending(prompt, Sinks.one(), System.nanoTime());
+
+            // emissões concorrentes de várias threads: só FAIL_NON_SERIALIZED é retentado
+            Sinks.EmitResult result;
+            while ((result = queue.tryEmitNext(pending)) == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+                Thread.onSpinWait();
+            }
+            if (result.isFailure()) {
+                rejected.increment();
+                return Mono.error(new AiUnavailableException("Fila de geração AI cheia (" + result + ")", null));
+            }
+            return pending.reply().asMono();
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pipeline.dispose();
+    }
+
+    // agrupa a janela por prompt, preservando a ordem de chegada
+    private List<List<Pending>> dedupe(List<Pending> batch) {
+        Map<String, List<Pending>> byPrompt = new LinkedHashMap<>();
+        for (Pending p : batch) {
+            byPrompt.computeIfAbsent(p.prompt(), k -> new ArrayList<>(1)).add(p);
+        }
+        batchSize.record(batch.size());
+        distinctPrompts.record(byPrompt.size());
+        return new ArrayList<>(byPrompt.values());
+    }
+
+    private Mono<Void> call(List<Pending> waiting) {
+        long now = System.nanoTime();
+        for (Pending p : waiting) {
+            queueDelay.record(now - p.enqueuedAt(), TimeUnit.NANOSECONDS);
+        }
+
+        // erros ficam dentro do grupo: o pipeline nunca termina
+        return aiService.generateMessageAsync(waiting.get(0).prompt())
+                .doOnNext(result -> waiting.forEach(p -> p.reply().tryEmitValue(result)))
+                .doOnError(ex -> waiting.forEach(p -> p.reply().tryEmitError(ex)))
+                .switchIfEmpty(Mono.fromRunnable(() -> waiting.forEach(p -> p.reply().tryEmitEmpty())))
+                .onErrorResume(ex -> {
+                    log.debug("Geração coalescida falhou para {} pedido(s): {}", waiting.size(), ex.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private record Pending(String prompt, Sinks.One<AIService.Result> reply, long enqueuedAt) {}
+}
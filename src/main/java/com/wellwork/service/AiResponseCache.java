@@ -0,0 +1,139 @@
+package com.wellwork.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wellwork.config.CacheConfig;
+import com.wellwork.config.CacheSpecProperties;
+import com.wellwork.model.enums.EnergyLevel;
+import com.wellwork.model.enums.Mood;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Cache de respostas da LLM na frente do AIService.
+ * O prompt só varia por Mood, EnergyLevel e notas; com notas vazias ou curtas a chave é
+ * (mood, energy, notas normalizadas) e cada chave guarda até {@code variants} respostas distintas.
+ * Enquanto o pool não enche toda geração vai à Groq; depois, uma variante é sorteada.
+ * TTL e tamanho vêm de wellwork.cache.specs.ai-responses: ao expirar, o pool é renovado.
+ */
+@Component
+public class AiResponseCache {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALNUM = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Cache<String, List<AIService.Result>> pools;
+    private final boolean enabled;
+    private final int variants;
+    private final int maxNotesLength;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bypasses;
+
+    public AiResponseCache(CacheSpecProperties cacheSpecs,
+                           MeterRegistry meterRegistry,
+                           @Value("${wellwork.ai.response-cache.enabled:true}") boolean enabled,
+                           @Value("${wellwork.ai.response-cache.variants:5}") int variants,
+                           @Value("${wellwork.ai.response-cache.max-notes-length:40}") int maxNotesLength) {
+        this.pools = Caffeine.from(cacheSpecs.specFor(CacheConfig.AI_RESPONSES)).build();
+        this.enabled = enabled;
+        this.variants = variants;
+        this.maxNotesLength = maxNotesLength;
+        CaffeineCacheMetrics.monitor(meterRegistry, pools, CacheConfig.AI_RESPONSES);
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.bypasses = counter(meterRegistry, "bypass");
+    }
+
+    /**
+     * Chave do prompt, ou vazio quando as notas são longas demais para serem tratadas como genéricas.
+     */
+    public Optional<String> keyFor(Mood mood, EnergyLevel energyLevel, String notes) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String normalized = normalize(notes);
+        if (normalized.length() > maxNotesLength) {
+            return Optional.empty();
+        }
+        return Optional.of(mood.name() + '|' + energyLevel.name() + '|' + normalized);
+    }
+
+    /**
+     * Sorteia uma variante do pool cheio; senão chama {@code generator} e guarda a resposta no pool.
+     * Sem chave (notas longas), sempre chama o generator.
+     */
+    public Mono<AIService.Result> getOrGenerate(Optional<String> key, Supplier<Mono<AIService.Result>> generator) {
+        Optional<AIService.Result> cached = lookup(key);
+        if (cached.isPresent()) {
+            return Mono.just(cached.get());
+        }
+        return generator.get().doOnNext(result -> offer(key, result));
+    }
+
+    // variante sorteada se o pool da chave já estiver cheio (contabiliza hit/miss/bypass)
+    public Optional<AIService.Result> lookup(Optional<String> key) {
+        if (key.isEmpty()) {
+            bypasses.increment();
+            return Optional.empty();
+        }
+
+        List<AIService.Result> pool = pools.getIfPresent(key.get());
+        if (pool != null && pool.size() >= variants) {
+            hits.increment();
+            return Optional.of(pool.get(ThreadLocalRandom.current().nextInt(pool.size())));
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    // resposta gerada fora do getOrGenerate (ex.: streaming) entrando no pool
+    public void offer(Optional<String> key, AIService.Result result) {
+        key.ifPresent(k -> store(k, result));
+    }
+
+    private void store(String key, AIService.Result result) {
+        if (result.message() == null || result.message().isBlank()) {
+            return;
+        }
+        // listas imutáveis substituídas atomicamente; respostas repetidas não ocupam vaga
+        pools.asMap().merge(key, List.of(result), (current, added) -> {
+            if (current.size() >= variants || current.stream().anyMatch(r -> r.message().equals(result.message()))) {
+                return current;
+            }
+            List<AIService.Result> next = new ArrayList<>(current);
+            next.add(result);
+            return List.copyOf(next);
+        });
+    }
+
+    // minúsculas, sem acentos nem pontuação, espaços colapsados: "Tudo bem!!" == "tudo  bem"
+    static String normalize(String notes) {
+        if (notes == null || notes.isBlank()) {
+            return "";
+        }
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(notes, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALNUM.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("wellwork.ai.response.cache")
+                .description("Consultas ao cache de respostas da LLM")
+                .tag("result", result)
+                .register(registry);
+    }
+}
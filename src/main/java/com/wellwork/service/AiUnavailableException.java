@@ -0,0 +1,16 @@
+package com.wellwork.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A Groq está indisponível (circuit breaker aberto, bulkhead cheio ou falhas transitórias esgotadas).
+ * Nada é persistido; o cliente pode tentar de novo mais tarde.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Serviço de IA indisponível no momento")
+public class AiUnavailableException extends RuntimeException {
+
+    public AiUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
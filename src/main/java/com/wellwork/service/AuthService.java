@@ -3,7 +3,7 @@ package com.wellwork.service;
 import com.wellwork.model.entities.User;
 import com.wellwork.repository.UserRepository;
 import com.wellwork.security.JwtUtil;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.wellwork.security.LoginAttemptLimiter;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -11,23 +11,49 @@ public class AuthService {
 
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashing;
+    private final LoginAttemptLimiter loginAttemptLimiter;
 
-    public AuthService(UserRepository userRepository, JwtUtil jwtUtil, PasswordEncoder passwordEncoder) {
+    public AuthService(UserRepository userRepository,
+                       JwtUtil jwtUtil,
+                       PasswordHashingService passwordHashing,
+                       LoginAttemptLimiter loginAttemptLimiter) {
         this.userRepository = userRepository;
         this.jwtUtil = jwtUtil;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashing = passwordHashing;
+        this.loginAttemptLimiter = loginAttemptLimiter;
     }
 
-    public String login(String username, String password) {
+    public String login(String username, String password, String clientIp) {
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+        // recusa rajadas antes de qualquer consulta ou BCrypt; a tentativa já consome os tokens
+        loginAttemptLimiter.checkAllowed(username, clientIp);
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        User user = userRepository.findByUsername(username).orElse(null);
+        if (user == null) {
+            throw new RuntimeException("Usuário não encontrado");
+        }
+
+        boolean matches;
+        try {
+            matches = passwordHashing.matches(password, user.getPassword());
+        } catch (RuntimeException ex) {
+            // senha não verificada (ex.: 503 do pool de hash): não conta como tentativa
+            loginAttemptLimiter.release(username);
+            throw ex;
+        }
+        if (!matches) {
             throw new RuntimeException("Senha inválida");
         }
 
-        return jwtUtil.generateToken(username);
+        loginAttemptLimiter.recordSuccess(username);
+
+        // hash antigo (sem prefixo ou custo menor que o atual): regrava com o encoder atual
+        if (passwordHashing.needsUpgrade(user.getPassword())) {
+            user.updatePassword(passwordHashing.encode(password));
+            userRepository.save(user);
+        }
+
+        return jwtUtil.generateToken(user.getId(), username, user.getRole());
     }
 }
@@ -0,0 +1,182 @@
+package com.wellwork.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.wellwork.dto.BulkCheckInResultDTO;
+import com.wellwork.dto.CheckInCreateDTO;
+import com.wellwork.event.CheckInCreatedEvent;
+import com.wellwork.model.entities.CheckIn;
+import com.wellwork.model.entities.User;
+import com.wellwork.repository.CheckInRepository;
+import com.wellwork.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Ingestão em massa de check-ins (kiosks / wearables sincronizando offline).
+ * O corpo (array JSON ou NDJSON) é lido item a item, sem materializar o payload,
+ * e persistido em transações de {@code batchSize} itens com insert em batch JDBC.
+ */
+@Service
+public class CheckInBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckInBulkService.class);
+
+    private final CheckInRepository checkInRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CheckInCacheEvictor cacheEvictor;
+    private final WellbeingTrendService trendService;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader reader;
+    private final int batchSize;
+    private final int maxItems;
+
+    public CheckInBulkService(CheckInRepository checkInRepository,
+                              UserRepository userRepository,
+                              ApplicationEventPublisher eventPublisher,
+                              CheckInCacheEvictor cacheEvictor,
+                              WellbeingTrendService trendService,
+                              Validator validator,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${wellwork.checkins.bulk.batch-size:500}") int batchSize,
+                              @Value("${wellwork.checkins.bulk.max-items:10000}") int maxItems) {
+        this.checkInRepository = checkInRepository;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.cacheEvictor = cacheEvictor;
+        this.trendService = trendService;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reader = objectMapper.readerFor(CheckInCreateDTO.class);
+        this.batchSize = batchSize;
+        this.maxItems = maxItems;
+    }
+
+    public BulkCheckInResultDTO ingest(Long userId, InputStream body) throws IOException {
+        if (!userRepository.existsById(userId)) {
+            throw new IllegalArgumentException("User não encontrado: " + userId);
+        }
+
+        List<BulkCheckInResultDTO.Item> results = new ArrayList<>();
+        List<Pending> batch = new ArrayList<>(batchSize);
+        int index = 0;
+
+        // readValues aceita tanto um array na raiz quanto valores separados por quebra de linha (NDJSON)
+        try (MappingIterator<CheckInCreateDTO> it = reader.readValues(body)) {
+            while (true) {
+                CheckInCreateDTO dto;
+                try {
+                    if (!it.hasNextValue()) {
+                        break;
+                    }
+                    dto = it.nextValue();
+                } catch (JsonParseException ex) {
+                    // JSON malformado: não há como ressincronizar o stream com segurança
+                    results.add(new BulkCheckInResultDTO.Item(index, null, "JSON malformado: " + ex.getOriginalMessage()));
+                    break;
+                } catch (JsonMappingException ex) {
+                    // item com tipo/enum inválido: o iterator pula o valor e segue
+                    results.add(new BulkCheckInResultDTO.Item(index++, null, "Item inválido: " + ex.getOriginalMessage()));
+                    continue;
+                }
+
+                if (index >= maxItems) {
+                    results.add(new BulkCheckInResultDTO.Item(index, null, "Limite de " + maxItems + " itens por requisição excedido"));
+                    break;
+                }
+
+                String error = validate(dto);
+                if (error != null) {
+                    results.add(new BulkCheckInResultDTO.Item(index++, null, error));
+                    continue;
+                }
+
+                batch.add(new Pending(index++, dto));
+                if (batch.size() == batchSize) {
+                    flush(userId, batch, results);
+                }
+            }
+        }
+        flush(userId, batch, results);
+
+        results.sort((a, b) -> Integer.compare(a.index(), b.index()));
+        int created = (int) results.stream().filter(r -> r.id() != null).count();
+        return new BulkCheckInResultDTO(index, created, results.size() - created, results);
+    }
+
+    private void flush(Long userId, List<Pending> batch, List<BulkCheckInResultDTO.Item> results) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<CheckIn> saved = transactionTemplate.execute(status -> persistBatch(userId, batch));
+            for (int i = 0; i < batch.size(); i++) {
+                results.add(new BulkCheckInResultDTO.Item(batch.get(i).index(), saved.get(i).getId(), null));
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Falha ao persistir lote bulk de {} check-ins do user {}", batch.size(), userId, ex);
+            for (Pending p : batch) {
+                results.add(new BulkCheckInResultDTO.Item(p.index(), null, "Falha ao persistir o lote"));
+            }
+        }
+        batch.clear();
+    }
+
+    private List<CheckIn> persistBatch(Long userId, List<Pending> batch) {
+        User user = userRepository.getReferenceById(userId);
+
+        List<CheckIn> checkIns = new ArrayList<>(batch.size());
+        for (Pending p : batch) {
+            CheckIn checkIn = new CheckIn();
+            checkIn.setUser(user);
+            checkIn.setMood(p.dto().mood());
+            checkIn.setEnergyLevel(p.dto().energyLevel());
+            checkIn.setNotes(p.dto().notes());
+            checkIns.add(checkIn);
+        }
+
+        List<CheckIn> saved = checkInRepository.saveAll(checkIns);
+        cacheEvictor.evictPages(userId);
+        trendService.recordAll(userId, saved);
+
+        // um único evento por lote: a geração AI é enfileirada em bloco após o commit
+        eventPublisher.publishEvent(new CheckInCreatedEvent(saved.stream().map(CheckIn::getId).toList()));
+        return saved;
+    }
+
+    private String validate(CheckInCreateDTO dto) {
+        if (dto == null) {
+            return "Item vazio";
+        }
+        Set<ConstraintViolation<CheckInCreateDTO>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private record Pending(int index, CheckInCreateDTO dto) {}
+}
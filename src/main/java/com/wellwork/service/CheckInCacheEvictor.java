@@ -0,0 +1,50 @@
+package com.wellwork.service;
+
+import com.wellwork.config.CacheConfig;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Remove as páginas de check-in em cache de um único usuário.
+ * As chaves de {@link CacheConfig#CHECKIN_PAGES} começam com "{userId}:".
+ */
+@Component
+public class CheckInCacheEvictor {
+
+    private final CacheManager cacheManager;
+
+    public CheckInCacheEvictor(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public void evictPages(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvictPages(userId);
+                }
+            });
+        } else {
+            doEvictPages(userId);
+        }
+    }
+
+    private void doEvictPages(Long userId) {
+        Cache cache = cacheManager.getCache(CacheConfig.CHECKIN_PAGES);
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+        if (cache instanceof CaffeineCache caffeine) {
+            String prefix = userId + ":";
+            caffeine.getNativeCache().asMap().keySet().removeIf(key -> key.toString().startsWith(prefix));
+        } else if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.wellwork.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Posição na listagem ordenada por (created_at desc, id desc).
+ * Serializado como base64url de "{instant}|{id}" para o cliente tratá-lo como opaco.
+ */
+public record CheckInCursor(OffsetDateTime createdAt, Long id) {
+
+    public String encode() {
+        String raw = createdAt.toInstant() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CheckInCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            Instant createdAt = Instant.parse(raw.substring(0, sep));
+            Long id = Long.valueOf(raw.substring(sep + 1));
+            return new CheckInCursor(OffsetDateTime.ofInstant(createdAt, ZoneOffset.UTC), id);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.wellwork.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.wellwork.repository.CheckInExportRepository;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Exporta o histórico completo de check-ins direto do cursor JDBC para o corpo da resposta.
+ */
+@Service
+public class CheckInExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String CSV_HEADER = "id,mood,energy_level,notes,created_at,message,confidence,generated_at";
+
+    private final CheckInExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+    // sem flush por linha: o buffer do generator/servlet decide quando escrever no socket
+    private final ObjectWriter rowWriter;
+
+    public CheckInExportService(CheckInExportRepository exportRepository, ObjectMapper objectMapper) {
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void export(Long userId, Format format, OutputStream out) throws IOException {
+        try {
+            if (format == Format.CSV) {
+                exportCsv(userId, out);
+            } else {
+                exportNdjson(userId, out);
+            }
+        } catch (UncheckedIOException e) {
+            // cliente desconectou no meio do stream
+            throw e.getCause();
+        }
+    }
+
+    private void exportNdjson(Long userId, OutputStream out) throws IOException {
+        JsonGenerator gen = objectMapper.getFactory().createGenerator(out);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gen.setRootValueSeparator(null);
+
+        exportRepository.streamByUser(userId, row -> {
+            try {
+                rowWriter.writeValue(gen, row);
+                gen.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        gen.flush();
+    }
+
+    private void exportCsv(Long userId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        exportRepository.streamByUser(userId, row -> {
+            try {
+                writer.write(String.valueOf(row.id()));
+                writer.write(',');
+                writer.write(row.mood().name());
+                writer.write(',');
+                writer.write(row.energyLevel().name());
+                writer.write(',');
+                writer.write(csv(row.notes()));
+                writer.write(',');
+                writer.write(csv(row.createdAt()));
+                writer.write(',');
+                writer.write(csv(row.message()));
+                writer.write(',');
+                writer.write(csv(row.confidence()));
+                writer.write(',');
+                writer.write(csv(row.generatedAt()));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    // RFC 4180: aspas quando houver vírgula, aspas ou quebra de linha
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String s = value.toString();
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,39 +1,56 @@
 package com.wellwork.service;
 
+import com.wellwork.config.CacheConfig;
+import com.wellwork.dto.CheckInPageDTO;
 import com.wellwork.dto.CheckInRequestDTO;
 import com.wellwork.dto.CheckInResponseDTO;
+import com.wellwork.dto.CheckInVersionDTO;
+import com.wellwork.event.CheckInCreatedEvent;
 import com.wellwork.model.entities.CheckIn;
 import com.wellwork.model.entities.User;
+import com.wellwork.model.enums.EnergyLevel;
+import com.wellwork.model.enums.Mood;
 import com.wellwork.repository.CheckInRepository;
 import com.wellwork.repository.UserRepository;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.List;
 
 @Service
 public class CheckInService {
 
     private final CheckInRepository checkInRepository;
     private final UserRepository userRepository;
-    private final GeneratedMessageService generatedMessageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CheckInCacheEvictor cacheEvictor;
+    private final WellbeingTrendService trendService;
 
     public CheckInService(CheckInRepository checkInRepository,
                           UserRepository userRepository,
-                          GeneratedMessageService generatedMessageService) {
+                          ApplicationEventPublisher eventPublisher,
+                          CheckInCacheEvictor cacheEvictor,
+                          WellbeingTrendService trendService) {
         this.checkInRepository = checkInRepository;
         this.userRepository = userRepository;
-        this.generatedMessageService = generatedMessageService;
+        this.eventPublisher = eventPublisher;
+        this.cacheEvictor = cacheEvictor;
+        this.trendService = trendService;
     }
 
     @Transactional
     public CheckInResponseDTO updatePartial(Long id, Long userId, CheckInRequestDTO dto) {
-        CheckIn checkIn = checkInRepository.findById(id)
+        CheckIn checkIn = checkInRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new IllegalArgumentException("CheckIn não encontrado: " + id));
 
+        Mood oldMood = checkIn.getMood();
+        EnergyLevel oldEnergy = checkIn.getEnergyLevel();
+
         if (dto.getMood() != null) {
             checkIn.updateMood(dto.getMood());
         }
@@ -46,7 +63,11 @@ public class CheckInService {
             checkIn.updateNotes(dto.getNotes());
         }
 
-        checkInRepository.save(checkIn);
+        // flush já aqui: a versão incrementada vai no DTO
+        checkInRepository.saveAndFlush(checkIn);
+        cacheEvictor.evictPages(checkIn.getUser().getId());
+        trendService.move(checkIn.getUser().getId(), checkIn.getCreatedAt(),
+                oldMood, oldEnergy, checkIn.getMood(), checkIn.getEnergyLevel());
 
         return toResponseDTO(checkIn);
     }
@@ -63,15 +84,97 @@ public class CheckInService {
         checkIn.setEnergyLevel(dto.getEnergyLevel());
         checkIn.setNotes(dto.getNotes());
         checkIn = checkInRepository.save(checkIn);
+        cacheEvictor.evictPages(user.getId());
+        trendService.record(user.getId(), checkIn.getCreatedAt(), checkIn.getMood(), checkIn.getEnergyLevel(), 1);
 
-        // Dispara geração assíncrona de mensagem
-        generateAiMessageAsync(checkIn.getId());
+        // Geração AI é despachada pelo AiGenerationListener após o commit
+        eventPublisher.publishEvent(CheckInCreatedEvent.of(checkIn.getId()));
 
         return toResponseDTO(checkIn);
     }
 
-    public Page<CheckInResponseDTO> findByUser(Long userId, Pageable pageable) {
-        return checkInRepository.findByUserId(userId, pageable).map(this::toResponseDTO);
+    /**
+     * Listagem por cursor (keyset) em (created_at desc, id desc): custo constante por página,
+     * sem COUNT nem OFFSET. Busca size + 1 linhas só para saber se existe próxima página.
+     */
+    @Cacheable(cacheNames = CacheConfig.CHECKIN_PAGES, key = "#userId + ':' + #cursor + ':' + #size")
+    @Transactional(readOnly = true)
+    public CheckInPageDTO findByUser(Long userId, String cursor, int size) {
+        return loadPage(userId, cursor, size);
+    }
+
+    /**
+     * Relê a página do banco e substitui a entrada em cache. O cache é por nó: uma escrita
+     * feita em outro nó não o invalida, então quem detecta a divergência chama este método.
+     */
+    @CachePut(cacheNames = CacheConfig.CHECKIN_PAGES, key = "#userId + ':' + #cursor + ':' + #size")
+    @Transactional(readOnly = true)
+    public CheckInPageDTO reloadByUser(Long userId, String cursor, int size) {
+        return loadPage(userId, cursor, size);
+    }
+
+    /**
+     * Ids e versões da mesma página que {@link #findByUser} devolveria, sempre lidos do banco
+     * (sem notas nem mensagem): base do ETag da listagem.
+     */
+    @Transactional(readOnly = true)
+    public PageVersions findPageVersions(Long userId, String cursor, int size) {
+        PageRequest limit = PageRequest.of(0, size + 1);
+
+        List<CheckInVersionDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = checkInRepository.findFirstPageVersions(userId, limit);
+        } else {
+            CheckInCursor after = CheckInCursor.decode(cursor);
+            rows = checkInRepository.findPageVersionsAfter(userId, after.createdAt(), after.id(), limit);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            CheckInVersionDTO last = rows.get(size - 1);
+            nextCursor = new CheckInCursor(last.createdAt(), last.id()).encode();
+        }
+
+        return new PageVersions(List.copyOf(rows), nextCursor);
+    }
+
+    private CheckInPageDTO loadPage(Long userId, String cursor, int size) {
+        PageRequest limit = PageRequest.of(0, size + 1);
+
+        List<CheckInResponseDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = checkInRepository.findFirstPage(userId, limit);
+        } else {
+            CheckInCursor after = CheckInCursor.decode(cursor);
+            rows = checkInRepository.findPageAfter(userId, after.createdAt(), after.id(), limit);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            CheckInResponseDTO last = rows.get(size - 1);
+            nextCursor = new CheckInCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new CheckInPageDTO(List.copyOf(rows), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public CheckInResponseDTO findResponseById(Long id) {
+        return checkInRepository.findResponseById(id)
+                .orElseThrow(() -> new IllegalArgumentException("CheckIn não encontrado: " + id));
+    }
+
+    /**
+     * Versão atual do check-in, para responder If-None-Match sem carregar o check-in.
+     * Sempre lida do banco (só a coluna, pela PK): um cache por nó não enxerga escritas feitas
+     * em outros nós e um 304 de conteúdo alterado seria resposta errada.
+     */
+    @Transactional(readOnly = true)
+    public Long findVersion(Long id) {
+        return checkInRepository.findVersionById(id)
+                .orElseThrow(() -> new IllegalArgumentException("CheckIn não encontrado: " + id));
     }
 
     public CheckIn findEntityById(Long id) {
@@ -91,17 +194,12 @@ public class CheckInService {
         } else {
             dto.setGeneratedMessage(null);
         }
+        dto.setVersion(ck.getVersion());
         return dto;
     }
 
-    @Async("taskExecutor")
-    public void generateAiMessageAsync(Long checkInId) {
-        try {
-            generatedMessageService.generateForCheckIn(checkInId);
-        } catch (Exception ex) {
-            // log error but do not fail the main transaction
-            // use a logger in real code: logger.error("Failed AI generation", ex);
-            System.err.println("Falha ao gerar mensagem AI para checkIn " + checkInId + ": " + ex.getMessage());
-        }
-    }
+    /**
+     * Ids e versões de uma página, na ordem da listagem. {@code nextCursor} igual ao da página.
+     */
+    public record PageVersions(List<CheckInVersionDTO> items, String nextCursor) {}
 }
@@ -1,45 +1,215 @@
 package com.wellwork.service;
 
+import com.wellwork.config.CacheConfig;
 import com.wellwork.dto.GeneratedMessageResponseDTO;
+import com.wellwork.event.MessageGeneratedEvent;
 import com.wellwork.model.entities.CheckIn;
 import com.wellwork.model.entities.GeneratedMessage;
 import com.wellwork.repository.GeneratedMessageRepository;
 import com.wellwork.repository.CheckInRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
 
 @Service
 public class GeneratedMessageService {
 
     private final GeneratedMessageRepository generatedMessageRepository;
     private final CheckInRepository checkInRepository;
+    private final AiRequestCoalescer coalescer;
     private final AIService aiService;
+    private final AiResponseCache responseCache;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final CheckInCacheEvictor cacheEvictor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Cache idempotencyCache;
+    // uma geração em andamento por checkIn; pedidos concorrentes aguardam a mesma
+    private final ConcurrentMap<Long, CompletableFuture<GenerationResult>> inFlight = new ConcurrentHashMap<>();
 
     public GeneratedMessageService(GeneratedMessageRepository generatedMessageRepository,
                                    CheckInRepository checkInRepository,
-                                   AIService aiService) {
+                                   AiRequestCoalescer coalescer,
+                                   AIService aiService,
+                                   AiResponseCache responseCache,
+                                   PlatformTransactionManager transactionManager,
+                                   CheckInCacheEvictor cacheEvictor,
+                                   ApplicationEventPublisher eventPublisher,
+                                   CacheManager cacheManager) {
         this.generatedMessageRepository = generatedMessageRepository;
         this.checkInRepository = checkInRepository;
+        this.coalescer = coalescer;
         this.aiService = aiService;
+        this.responseCache = responseCache;
+        this.cacheEvictor = cacheEvictor;
+        this.eventPublisher = eventPublisher;
+        this.idempotencyCache = cacheManager.getCache(CacheConfig.IDEMPOTENCY_KEYS);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
     }
 
     /**
-     * Gera uma mensagem para o checkIn indicado, persiste e vincula a entidade.
-     * Retorna a entidade persistida.
+     * Mensagem do checkIn indicado: a já gravada, se existir, ou uma nova gerada e persistida.
+     * Equivale a {@code generateForCheckInAsync(checkInId, false, null)}.
+     */
+    public Mono<GenerationResult> generateForCheckInAsync(Long checkInId) {
+        return generateForCheckInAsync(checkInId, false, null);
+    }
+
+    /**
+     * Idempotente: sem {@code regenerate}, devolve a mensagem já gravada sem chamar a Groq; com ele,
+     * gera de novo e atualiza a mesma linha. Pedidos concorrentes para o mesmo checkIn compartilham
+     * uma única geração (neste nó). Com {@code idempotencyKey}, a repetição do pedido (retry do cliente)
+     * devolve o resultado da primeira execução enquanto a chave estiver no cache idempotency-keys.
+     * Pipeline não bloqueante: o JDBC roda no boundedElastic e nenhuma transação
+     * (nem conexão do pool) fica aberta enquanto a Groq responde.
+     */
+    public Mono<GenerationResult> generateForCheckInAsync(Long checkInId, boolean regenerate, String idempotencyKey) {
+        String replayKey = idempotencyKey == null || idempotencyKey.isBlank() ? null : checkInId + ":" + idempotencyKey;
+        if (replayKey != null) {
+            GenerationResult replay = idempotencyCache.get(replayKey, GenerationResult.class);
+            if (replay != null) {
+                return Mono.just(replay);
+            }
+        }
+        Mono<GenerationResult> result = singleFlight(checkInId, () -> generate(checkInId, regenerate));
+        return replayKey == null ? result : result.doOnNext(r -> idempotencyCache.put(replayKey, r));
+    }
+
+    private Mono<GenerationResult> singleFlight(Long checkInId, Supplier<Mono<GenerationResult>> generation) {
+        return Mono.defer(() -> {
+            CompletableFuture<GenerationResult> mine = new CompletableFuture<>();
+            CompletableFuture<GenerationResult> current = inFlight.putIfAbsent(checkInId, mine);
+            if (current == null) {
+                // desacoplada de quem pediu: um cliente que desiste não cancela a geração dos demais
+                generation.get()
+                        .doFinally(signal -> inFlight.remove(checkInId, mine))
+                        .subscribe(mine::complete, mine::completeExceptionally, () -> mine.complete(null));
+                current = mine;
+            }
+            return Mono.fromFuture(current, true);
+        });
+    }
+
+    /**
+     * Check-ins com notas vazias/curtas normalmente são atendidos pelo AiResponseCache, sem chamar a Groq;
+     * os demais passam pelo AiRequestCoalescer.
+     */
+    private Mono<GenerationResult> generate(Long checkInId, boolean regenerate) {
+        return Mono.fromCallable(() -> readOnlyTransactionTemplate.execute(status -> prepare(checkInId, regenerate)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(prepared -> prepared.existing() != null
+                        ? Mono.just(GenerationResult.existing(prepared.existing()))
+                        : responseCache.getOrGenerate(prepared.request().cacheKey(),
+                                        () -> coalescer.submit(prepared.request().prompt()))
+                                .publishOn(Schedulers.boundedElastic())
+                                .map(res -> new GenerationResult(persistOrExisting(checkInId, res), true)));
+    }
+
+    private PreparedGeneration prepare(Long checkInId, boolean regenerate) {
+        CheckIn checkIn = findCheckIn(checkInId);
+        if (!regenerate && checkIn.getGeneratedMessage() != null) {
+            return new PreparedGeneration(null, toResponseDTO(checkIn.getGeneratedMessage()));
+        }
+        return new PreparedGeneration(toRequest(checkIn), null);
+    }
+
+    // outro nó pode ter gravado a primeira mensagem no meio tempo (checkin_id é único): fica a dele
+    private GeneratedMessageResponseDTO persistOrExisting(Long checkInId, AIService.Result res) {
+        try {
+            return transactionTemplate.execute(status -> persist(checkInId, res));
+        } catch (DataIntegrityViolationException ex) {
+            return readOnlyTransactionTemplate.execute(status -> generatedMessageRepository.findByCheckInId(checkInId)
+                    .map(this::toResponseDTO)
+                    .orElseThrow(() -> ex));
+        }
+    }
+
+    /**
+     * Geração em streaming: emite os trechos de texto conforme chegam da Groq e, ao final do stream,
+     * persiste o texto completo e emite o DTO gravado. Pool cheio no AiResponseCache responde
+     * com a variante inteira num único trecho. Sem {@code regenerate}, uma mensagem já gravada
+     * é devolvida direto, só com o evento final. Não passa pelo coalescer nem pelo single-flight
+     * (cada stream é único).
+     */
+    public Flux<MessageStreamEvent> streamForCheckIn(Long checkInId, boolean regenerate) {
+        return Mono.fromCallable(() -> readOnlyTransactionTemplate.execute(status -> prepare(checkInId, regenerate)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(prepared -> {
+                    if (prepared.existing() != null) {
+                        return Flux.just(MessageStreamEvent.ofMessage(prepared.existing()));
+                    }
+                    GenerationRequest req = prepared.request();
+                    return responseCache.lookup(req.cacheKey())
+                            .map(cached -> Flux.just(MessageStreamEvent.ofToken(cached.message()))
+                                    .concatWith(persistAsync(checkInId, cached)))
+                            .orElseGet(() -> streamFromAi(checkInId, req));
+                });
+    }
+
+    private Flux<MessageStreamEvent> streamFromAi(Long checkInId, GenerationRequest req) {
+        StringBuilder text = new StringBuilder();
+        return aiService.streamMessage(req.prompt())
+                .doOnNext(text::append)
+                .map(MessageStreamEvent::ofToken)
+                .concatWith(Mono.defer(() -> {
+                    AIService.Result result = new AIService.Result(text.toString().trim(), Optional.empty());
+                    if (result.message().isEmpty()) {
+                        return Mono.error(new RuntimeException("Resposta vazia da Groq"));
+                    }
+                    responseCache.offer(req.cacheKey(), result);
+                    return persistAsync(checkInId, result);
+                }));
+    }
+
+    private Mono<MessageStreamEvent> persistAsync(Long checkInId, AIService.Result result) {
+        return Mono.fromCallable(() -> persistOrExisting(checkInId, result))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(MessageStreamEvent::ofMessage);
+    }
+
+    /**
+     * Versão bloqueante para workers em background. Não usar em threads de request.
      */
-    @Transactional
     public GeneratedMessageResponseDTO generateForCheckIn(Long checkInId) {
-        CheckIn checkIn = checkInRepository.findById(checkInId)
-                .orElseThrow(() -> new IllegalArgumentException("CheckIn não encontrado: " + checkInId));
+        return generateForCheckInAsync(checkInId).map(GenerationResult::message).block();
+    }
 
-        // Build prompt baseado nos dados do CheckIn
-        String prompt = buildPrompt(checkIn);
+    // sempre do banco: um cache por nó serviria o texto antigo após regenerate=true em outro nó
+    @Transactional(readOnly = true)
+    public GeneratedMessageResponseDTO findForCheckIn(Long checkInId) {
+        return generatedMessageRepository.findByCheckInId(checkInId)
+                .map(this::toResponseDTO)
+                .orElseThrow(() -> new IllegalArgumentException("Mensagem não encontrada para o checkIn: " + checkInId));
+    }
+
+    public boolean hasMessage(Long checkInId) {
+        return generatedMessageRepository.existsByCheckInId(checkInId);
+    }
 
-        AIService.Result res = aiService.generateMessage(prompt);
+    private GeneratedMessageResponseDTO persist(Long checkInId, AIService.Result res) {
+        // trava o check-in e incrementa a versão: a mensagem faz parte da representação dele
+        CheckIn checkIn = checkInRepository.findByIdIncrementingVersion(checkInId)
+                .orElseThrow(() -> new IllegalArgumentException("CheckIn não encontrado: " + checkInId));
 
-        GeneratedMessage gm = new GeneratedMessage();
+        // regeneração atualiza a linha existente (checkin_id é único)
+        GeneratedMessage gm = checkIn.getGeneratedMessage() != null ? checkIn.getGeneratedMessage() : new GeneratedMessage();
         gm.setCheckIn(checkIn);
         gm.setMessage(res.message());
         gm.setConfidence(res.confidence().orElse(null));
@@ -52,7 +222,24 @@ public class GeneratedMessageService {
         checkInRepository.save(checkIn);
 
         // 🔥 converte entidade → DTO
-        return toResponseDTO(saved);
+        GeneratedMessageResponseDTO dto = toResponseDTO(saved);
+
+        cacheEvictor.evictPages(checkIn.getUser().getId());
+
+        // push para o usuário (SSE), entregue pelo MessageReadyListener após o commit
+        eventPublisher.publishEvent(new MessageGeneratedEvent(checkIn.getUser().getId(), dto));
+
+        return dto;
+    }
+
+    private CheckIn findCheckIn(Long checkInId) {
+        return checkInRepository.findById(checkInId)
+                .orElseThrow(() -> new IllegalArgumentException("CheckIn não encontrado: " + checkInId));
+    }
+
+    private GenerationRequest toRequest(CheckIn checkIn) {
+        return new GenerationRequest(buildPrompt(checkIn),
+                responseCache.keyFor(checkIn.getMood(), checkIn.getEnergyLevel(), checkIn.getNotes()));
     }
 
     private String buildPrompt(CheckIn checkIn) {
@@ -70,4 +257,37 @@ public class GeneratedMessageService {
         dto.setGeneratedAt(gm.getGeneratedAt());
         return dto;
     }
+
+    private record GenerationRequest(String prompt, Optional<String> cacheKey) {}
+
+    private record PreparedGeneration(GenerationRequest request, GeneratedMessageResponseDTO existing) {}
+
+    /**
+     * Mensagem devolvida por generateForCheckInAsync; {@code created} é false quando
+     * a mensagem já existia e nada foi gerado.
+     */
+    public record GenerationResult(GeneratedMessageResponseDTO message, boolean created) {
+
+        static GenerationResult existing(GeneratedMessageResponseDTO message) {
+            return new GenerationResult(message, false);
+        }
+    }
+
+    /**
+     * Evento do stream de geração: um trecho de texto ({@code token}) ou, no fim, a mensagem persistida.
+     */
+    public record MessageStreamEvent(String token, GeneratedMessageResponseDTO message) {
+
+        static MessageStreamEvent ofToken(String token) {
+            return new MessageStreamEvent(token, null);
+        }
+
+        static MessageStreamEvent ofMessage(GeneratedMessageResponseDTO message) {
+            return new MessageStreamEvent(null, message);
+        }
+
+        public boolean isCompleted() {
+            return message != null;
+        }
+    }
 }
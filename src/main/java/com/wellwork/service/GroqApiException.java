@@ -0,0 +1,31 @@
+package com.wellwork.service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Resposta de erro HTTP da Groq. 429 e 5xx são transitórios e podem ser retentados.
+ */
+public class GroqApiException extends RuntimeException {
+
+    private final int status;
+    private final Duration retryAfter;
+
+    public GroqApiException(int status, Duration retryAfter, String body) {
+        super("Erro da Groq (" + status + "): " + body);
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+
+    public boolean isTransient() {
+        return status == 429 || status >= 500;
+    }
+}
@@ -0,0 +1,118 @@
+package com.wellwork.service;
+
+import com.wellwork.config.AsyncConfig;
+import com.wellwork.messaging.MessageReadyNotification;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Conexões SSE abertas neste nó, por usuário. Cada nó só conhece os próprios assinantes;
+ * as notificações chegam a todos os nós pelo fanout do RabbitMQ (MessageReadyConsumer).
+ */
+@Component
+public class NotificationHub {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationHub.class);
+
+    public static final String MESSAGE_READY_EVENT = "message-ready";
+
+    private final ConcurrentMap<Long, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final long emitterTimeoutMs;
+    // envios bloqueiam enquanto o cliente não lê: ficam fora do scheduler e do consumer Rabbit
+    private final TaskExecutor sendExecutor;
+    private final Counter dropped;
+
+    public NotificationHub(MeterRegistry meterRegistry,
+                           @Qualifier(AsyncConfig.NOTIFICATIONS_EXECUTOR) TaskExecutor sendExecutor,
+                           @Value("${wellwork.notifications.emitter-timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.sendExecutor = sendExecutor;
+        this.dropped = Counter.builder("wellwork.notifications.dropped")
+                .description("Envios SSE descartados com o pool de envio cheio")
+                .register(meterRegistry);
+        Gauge.builder("wellwork.notifications.connections", emitters, m -> m.values().stream().mapToInt(Set::size).sum())
+                .description("Conexões SSE de notificação abertas neste nó")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        // compute: adicionar e remover o Set do mapa nunca corre em paralelo para o mesmo usuário
+        emitters.compute(userId, (id, set) -> {
+            Set<SseEmitter> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(emitter);
+            return target;
+        });
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(ex -> remove(userId, emitter));
+
+        // primeiro byte já na conexão: proxies não seguram a resposta esperando conteúdo
+        send(userId, emitter, SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    public void deliver(MessageReadyNotification notification) {
+        Set<SseEmitter> targets = emitters.get(notification.userId());
+        if (targets == null) {
+            return;
+        }
+        for (SseEmitter emitter : targets) {
+            sendAsync(notification.userId(), emitter, SseEmitter.event()
+                    .name(MESSAGE_READY_EVENT)
+                    .id(String.valueOf(notification.messageId()))
+                    .data(notification, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    // mantém a conexão viva através de load balancers e detecta clientes que sumiram;
+    // a thread do scheduler só enfileira os envios
+    @Scheduled(fixedDelayString = "${wellwork.notifications.heartbeat-ms:25000}")
+    public void heartbeat() {
+        emitters.forEach((userId, set) -> set.forEach(emitter ->
+                sendAsync(userId, emitter, SseEmitter.event().comment("keepalive"))));
+    }
+
+    private void sendAsync(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            sendExecutor.execute(() -> send(userId, emitter, event));
+        } catch (TaskRejectedException ex) {
+            dropped.increment();
+            log.warn("Pool de envio SSE cheio, evento descartado para o user {}", userId);
+        }
+    }
+
+    private void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException ex) {
+            log.debug("Conexão SSE do user {} encerrada: {}", userId, ex.getMessage());
+            remove(userId, emitter);
+            emitter.completeWithError(ex);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (id, set) -> {
+            set.remove(emitter);
+            return set.isEmpty() ? null : set;
+        });
+    }
+}
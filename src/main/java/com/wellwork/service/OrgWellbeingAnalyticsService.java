@@ -0,0 +1,151 @@
+package com.wellwork.service;
+
+import com.wellwork.analytics.CheckInAggregationTask;
+import com.wellwork.analytics.CheckInCountMatrix;
+import com.wellwork.analytics.MoodEnergyHistogram;
+import com.wellwork.analytics.OrgWellbeingSnapshot;
+import com.wellwork.config.AsyncConfig;
+import com.wellwork.dto.WellbeingTrendDTO;
+import com.wellwork.model.enums.Granularity;
+import com.wellwork.repository.CheckInAnalyticsRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Tendências de humor/energia da organização inteira (dashboards de RH).
+ * A tabela checkins é lida em faixas de id por um fork-join dedicado e agregada numa matriz
+ * dia × Mood × EnergyLevel; o resultado fica em memória e é recalculado em intervalo fixo.
+ * Consultas nunca disparam uma varredura, exceto a primeira (antes de existir snapshot).
+ */
+@Service
+public class OrgWellbeingAnalyticsService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrgWellbeingAnalyticsService.class);
+
+    private final CheckInAnalyticsRepository repository;
+    private final ForkJoinPool pool;
+    private final ZoneId zone;
+    private final int windowDays;
+    private final long chunkSize;
+    private final Timer refreshTimer;
+
+    private volatile OrgWellbeingSnapshot snapshot;
+    // agregação em andamento: chamadas concorrentes compartilham o mesmo cálculo
+    private final AtomicReference<CompletableFuture<OrgWellbeingSnapshot>> inFlight = new AtomicReference<>();
+
+    public OrgWellbeingAnalyticsService(CheckInAnalyticsRepository repository,
+                                        @Qualifier(AsyncConfig.ANALYTICS_POOL) ForkJoinPool pool,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${wellwork.trends.zone:UTC}") String zone,
+                                        @Value("${wellwork.analytics.window-days:400}") int windowDays,
+                                        @Value("${wellwork.analytics.chunk-size:250000}") long chunkSize) {
+        this.repository = repository;
+        this.pool = pool;
+        this.zone = ZoneId.of(zone);
+        this.windowDays = windowDays;
+        this.chunkSize = chunkSize;
+        this.refreshTimer = Timer.builder("wellwork.analytics.refresh")
+                .description("Duração da agregação completa da organização")
+                .register(meterRegistry);
+        Gauge.builder("wellwork.analytics.snapshot.age", this, OrgWellbeingAnalyticsService::snapshotAgeSeconds)
+                .description("Idade do snapshot em segundos (-1 antes do primeiro cálculo)")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${wellwork.analytics.initial-delay-ms:30000}",
+               fixedDelayString = "${wellwork.analytics.refresh-interval-ms:600000}")
+    public void scheduledRefresh() {
+        // não bloqueia a thread do scheduler (compartilhada com o OutboxRelay)
+        refresh();
+    }
+
+    /**
+     * Snapshot atual, ou o cálculo em andamento se ainda não houver nenhum.
+     */
+    public CompletableFuture<OrgWellbeingSnapshot> currentSnapshot() {
+        OrgWellbeingSnapshot current = snapshot;
+        return current != null ? CompletableFuture.completedFuture(current) : refresh();
+    }
+
+    public CompletableFuture<OrgWellbeingSnapshot> refresh() {
+        while (true) {
+            CompletableFuture<OrgWellbeingSnapshot> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            CompletableFuture<OrgWellbeingSnapshot> created = new CompletableFuture<>();
+            if (inFlight.compareAndSet(null, created)) {
+                CompletableFuture.supplyAsync(this::aggregate, pool).whenComplete((result, ex) -> {
+                    if (ex == null) {
+                        snapshot = result;
+                        created.complete(result);
+                    } else {
+                        log.error("Falha ao agregar o analytics da organização", ex);
+                        created.completeExceptionally(ex);
+                    }
+                    inFlight.set(null);
+                });
+                return created;
+            }
+        }
+    }
+
+    // from/to opcionais: padrão são os últimos 12 meses; limitados à janela agregada
+    public WellbeingTrendDTO trends(OrgWellbeingSnapshot source, Granularity granularity, LocalDate from, LocalDate to) {
+        CheckInCountMatrix matrix = source.matrix();
+        LocalDate end = to != null && to.isBefore(matrix.lastDay()) ? to : matrix.lastDay();
+        LocalDate requestedStart = from != null ? from : end.minusYears(1).plusDays(1);
+        LocalDate start = requestedStart.isAfter(matrix.firstDay()) ? requestedStart : matrix.firstDay();
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Intervalo inválido: from depois de to");
+        }
+
+        List<WellbeingTrendDTO.Bucket> buckets = matrix.aggregate(granularity, start, end).entrySet().stream()
+                .map(e -> toBucket(e.getKey(), e.getValue()))
+                .toList();
+        return new WellbeingTrendDTO(granularity, start, end, buckets);
+    }
+
+    // roda numa thread do pool fork-join: invoke() executa a tarefa raiz no próprio pool
+    private OrgWellbeingSnapshot aggregate() {
+        long startNanos = System.nanoTime();
+        LocalDate lastDay = LocalDate.now(zone);
+        LocalDate firstDay = lastDay.minusDays(windowDays - 1L);
+
+        CheckInCountMatrix matrix = repository.idRange()
+                .map(range -> new CheckInAggregationTask(repository, range.min(), range.max(), chunkSize,
+                        firstDay, windowDays, zone).invoke())
+                .orElseGet(() -> new CheckInCountMatrix(firstDay, windowDays));
+
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+        refreshTimer.record(elapsed);
+        log.info("Analytics da organização agregado: {} check-ins em {} ms", matrix.total(), elapsed.toMillis());
+        return new OrgWellbeingSnapshot(matrix, Instant.now(), elapsed);
+    }
+
+    private double snapshotAgeSeconds() {
+        OrgWellbeingSnapshot current = snapshot;
+        return current == null ? -1 : Duration.between(current.computedAt(), Instant.now()).toSeconds();
+    }
+
+    private static WellbeingTrendDTO.Bucket toBucket(LocalDate start, MoodEnergyHistogram h) {
+        return new WellbeingTrendDTO.Bucket(start, h.total(), h.moods(), h.energyLevels());
+    }
+}
@@ -0,0 +1,56 @@
+package com.wellwork.service;
+
+import com.wellwork.model.entities.OutboxMessage;
+import com.wellwork.repository.OutboxMessageRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class OutboxService {
+
+    private final OutboxMessageRepository outboxMessageRepository;
+
+    public OutboxService(OutboxMessageRepository outboxMessageRepository) {
+        this.outboxMessageRepository = outboxMessageRepository;
+    }
+
+    /**
+     * Grava a mensagem na transação corrente: se o negócio der rollback, nada é publicado.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String exchange, String routingKey, String payload, String contentType) {
+        outboxMessageRepository.save(new OutboxMessage(exchange, routingKey, payload, contentType));
+    }
+
+    /**
+     * Reserva um lote de pendentes para este relay por {@code lease} e o devolve. A reserva é
+     * commitada antes da publicação: os outros nós pulam essas linhas até o lease vencer
+     * (nó que cair no meio do lote tem as mensagens retomadas depois disso).
+     */
+    @Transactional
+    public List<OutboxMessage> claimPending(int batchSize, Duration lease) {
+        String claim = UUID.randomUUID().toString();
+        Instant now = Instant.now();
+        if (outboxMessageRepository.claim(claim, now.plus(lease), now, batchSize) == 0) {
+            return List.of();
+        }
+        return outboxMessageRepository.findClaimed(claim);
+    }
+
+    @Transactional
+    public int markSent(Collection<Long> ids) {
+        return outboxMessageRepository.markSent(ids, Instant.now());
+    }
+
+    @Transactional
+    public int purgeSentBefore(Instant cutoff) {
+        return outboxMessageRepository.deleteSentBefore(cutoff);
+    }
+}
@@ -0,0 +1,15 @@
+package com.wellwork.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * O pool de hashing de senhas está saturado; a requisição é recusada em vez de esperar indefinidamente.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Autenticação sobrecarregada, tente novamente")
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    public PasswordHashingUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,74 +1,93 @@
 package com.wellwork.service;
 
+import com.wellwork.config.CacheConfig;
+import com.wellwork.config.RabbitConfig;
 import com.wellwork.dto.UserRequestDTO;
 import com.wellwork.dto.UserResponseDTO;
 import com.wellwork.model.entities.User;
+import com.wellwork.repository.CheckInRollupRepository;
 import com.wellwork.repository.UserRepository;
-import org.springframework.amqp.AmqpException;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final RabbitTemplate rabbitTemplate;
+    private final PasswordHashingService passwordHashing;
+    private final OutboxService outboxService;
+    private final CheckInRollupRepository rollupRepository;
+    private final Cache usersById;
+    private final Cache usersByUsername;
+    private final TransactionTemplate transactionTemplate;
 
     public UserService(
             UserRepository userRepository,
-            PasswordEncoder passwordEncoder,
-            RabbitTemplate rabbitTemplate
+            PasswordHashingService passwordHashing,
+            OutboxService outboxService,
+            CheckInRollupRepository rollupRepository,
+            CacheManager cacheManager,
+            PlatformTransactionManager transactionManager
     ) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
-        this.rabbitTemplate = rabbitTemplate;
+        this.passwordHashing = passwordHashing;
+        this.outboxService = outboxService;
+        this.rollupRepository = rollupRepository;
+        this.usersById = cacheManager.getCache(CacheConfig.USERS_BY_ID);
+        this.usersByUsername = cacheManager.getCache(CacheConfig.USERS_BY_USERNAME);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     // ======================
     // CREATE USER
     // ======================
-    @Transactional
-    @CacheEvict(value = "users", allEntries = true)
+    // Sem eviction: um usuário novo não tem entradas em cache (lookups que falham não são cacheados)
+    // O BCrypt roda antes da transação: a espera no pool de hash não segura conexão do Hikari
     public UserResponseDTO create(UserRequestDTO dto) {
 
+        // checagem barata antes do hash; repetida na transação
         if (userRepository.findByUsername(dto.getUsername()).isPresent()) {
             throw new IllegalArgumentException("Username já existe");
         }
 
-        User u = new User();
-        u.setUsername(dto.getUsername());
-        u.setPassword(passwordEncoder.encode(dto.getPassword()));
-        userRepository.save(u);
-
-        // RabbitMQ
-        if (rabbitTemplate != null) {
-            try {
-                rabbitTemplate.convertAndSend(
-                        "user.exchange",
-                        "user.welcome",
-                        "Bem-vindo(a), " + u.getUsername() + "!"
-                );
-            } catch (AmqpException ignored) {
-                System.out.println("⚠️ RabbitMQ indisponível. Ignorando.");
+        String encodedPassword = passwordHashing.encode(dto.getPassword());
+
+        return transactionTemplate.execute(status -> {
+            if (userRepository.findByUsername(dto.getUsername()).isPresent()) {
+                throw new IllegalArgumentException("Username já existe");
             }
-        }
 
-        return toResponse(u);
+            User u = new User();
+            u.setUsername(dto.getUsername());
+            u.setPassword(encodedPassword);
+            userRepository.save(u);
+
+            // RabbitMQ via outbox: gravado nesta transação, publicado pelo OutboxRelay
+            outboxService.enqueue(
+                    RabbitConfig.EXCHANGE,
+                    RabbitConfig.ROUTING_KEY,
+                    "Bem-vindo(a), " + u.getUsername() + "!",
+                    MessageProperties.CONTENT_TYPE_TEXT_PLAIN
+            );
+
+            return toResponse(u);
+        });
     }
 
     // ======================
     // GET USER BY ID - liberado para QUALQUER autenticado
     // ======================
-    @Cacheable(value = "users", key = "#id")
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_ID, key = "#id")
     public UserResponseDTO getById(Long id) {
 
         // Apenas garante que o usuário está autenticado
@@ -101,7 +120,7 @@ public class UserService {
     // ======================
     // /me endpoint
     // ======================
-    @Cacheable(value = "users", key = "#username")
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_USERNAME, key = "#username")
     public UserResponseDTO findByUsernameResponse(String username) {
         return toResponse(findEntityByUsername(username));
     }
@@ -109,8 +128,7 @@ public class UserService {
     // ======================
     // update password - RESTRITO ao próprio usuário
     // ======================
-    @Transactional
-    @CacheEvict(value = "users", allEntries = true)
+    // checagem de dono e BCrypt fora da transação; só a gravação roda com conexão presa
     public void updatePassword(Long userId, String newPassword) {
 
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -122,18 +140,22 @@ public class UserService {
             throw new SecurityException("Você não pode alterar a senha de outro usuário.");
         }
 
-        User u = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("User não encontrado: " + userId));
+        String encodedPassword = passwordHashing.encode(newPassword);
 
-        u.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(u);
+        transactionTemplate.executeWithoutResult(status -> {
+            User u = userRepository.findById(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("User não encontrado: " + userId));
+
+            u.setPassword(encodedPassword);
+            userRepository.save(u);
+            evictCached(u);
+        });
     }
 
     // ======================
     // delete - RESTRITO ao próprio usuário
     // ======================
     @Transactional
-    @CacheEvict(value = "users", allEntries = true)
     public void delete(Long id) {
 
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -145,7 +167,19 @@ public class UserService {
             throw new SecurityException("Você não pode excluir outro usuário.");
         }
 
+        // rollups não têm FK para users: removidos explicitamente
+        rollupRepository.deleteByUser(id);
         userRepository.deleteById(id);
+        evictCached(me);
+    }
+
+    // ======================
+    // cache: remove apenas as entradas do usuário afetado (id e username)
+    // o CacheManager é transaction-aware, então o evict acontece após o commit
+    // ======================
+    private void evictCached(User u) {
+        usersById.evict(u.getId());
+        usersByUsername.evict(u.getUsername());
     }
 
     // ======================
@@ -0,0 +1,127 @@
+package com.wellwork.service;
+
+import com.wellwork.analytics.DailyTrendSeries;
+import com.wellwork.analytics.MoodEnergyHistogram;
+import com.wellwork.config.CacheConfig;
+import com.wellwork.dto.WellbeingTrendDTO;
+import com.wellwork.model.entities.CheckIn;
+import com.wellwork.model.enums.EnergyLevel;
+import com.wellwork.model.enums.Granularity;
+import com.wellwork.model.enums.Mood;
+import com.wellwork.repository.CheckInRollupRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tendências de humor/energia por usuário a partir de checkin_daily_rollups.
+ * Os contadores diários são atualizados na mesma transação que cria/altera o check-in;
+ * a leitura nunca varre a tabela checkins.
+ */
+@Service
+public class WellbeingTrendService {
+
+    private final CheckInRollupRepository rollupRepository;
+    private final Cache trendCache;
+    private final ZoneId zone;
+    private final int cachedDays;
+
+    public WellbeingTrendService(CheckInRollupRepository rollupRepository,
+                                 CacheManager cacheManager,
+                                 @Value("${wellwork.trends.zone:UTC}") String zone,
+                                 @Value("${wellwork.trends.cached-days:400}") int cachedDays) {
+        this.rollupRepository = rollupRepository;
+        this.trendCache = cacheManager.getCache(CacheConfig.CHECKIN_TRENDS);
+        this.zone = ZoneId.of(zone);
+        this.cachedDays = cachedDays;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long userId, OffsetDateTime createdAt, Mood mood, EnergyLevel energyLevel, long delta) {
+        rollupRepository.increment(userId, dayOf(createdAt), mood.name(), energyLevel.name(), delta);
+        evictTrends(userId);
+    }
+
+    // PATCH: move uma unidade da combinação antiga para a nova, no mesmo dia
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void move(Long userId, OffsetDateTime createdAt,
+                     Mood oldMood, EnergyLevel oldEnergy, Mood newMood, EnergyLevel newEnergy) {
+        if (oldMood == newMood && oldEnergy == newEnergy) {
+            return;
+        }
+        LocalDate day = dayOf(createdAt);
+        rollupRepository.increment(userId, day, oldMood.name(), oldEnergy.name(), -1);
+        rollupRepository.increment(userId, day, newMood.name(), newEnergy.name(), 1);
+        evictTrends(userId);
+    }
+
+    // Lote (ingestão bulk): um MERGE por combinação (dia, mood, energy) distinta, não por check-in
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Long userId, List<CheckIn> checkIns) {
+        Map<List<Object>, Long> deltas = new HashMap<>();
+        for (CheckIn c : checkIns) {
+            deltas.merge(List.of(dayOf(c.getCreatedAt()), c.getMood(), c.getEnergyLevel()), 1L, Long::sum);
+        }
+        deltas.forEach((key, delta) -> rollupRepository.increment(
+                userId, (LocalDate) key.get(0), ((Mood) key.get(1)).name(), ((EnergyLevel) key.get(2)).name(), delta));
+        evictTrends(userId);
+    }
+
+    // from/to opcionais: padrão são os últimos 12 meses até hoje
+    @Transactional(readOnly = true)
+    public WellbeingTrendDTO getTrends(Long userId, Granularity granularity, LocalDate from, LocalDate to) {
+        LocalDate today = LocalDate.now(zone);
+        LocalDate end = to != null ? to : today;
+        LocalDate start = from != null ? from : end.minusYears(1).plusDays(1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Intervalo inválido: from depois de to");
+        }
+
+        // janela recente (dashboards) vem do cache; intervalos mais antigos leem os rollups direto
+        LocalDate windowStart = today.minusDays(cachedDays);
+        DailyTrendSeries series = start.isBefore(windowStart)
+                ? load(userId, start, end)
+                : trendCache.get(trendKey(userId, today), () -> load(userId, windowStart, today.plusDays(1)));
+
+        List<WellbeingTrendDTO.Bucket> buckets = series.aggregate(granularity, start, end).entrySet().stream()
+                .map(e -> toBucket(e.getKey(), e.getValue()))
+                .toList();
+        return new WellbeingTrendDTO(granularity, start, end, buckets);
+    }
+
+    // a janela em cache termina em "hoje": a chave inclui a data para não atravessar a meia-noite
+    private static String trendKey(Long userId, LocalDate today) {
+        return userId + ":" + today;
+    }
+
+    // ontem também: uma leitura iniciada antes da meia-noite ainda pode gravar na chave do dia anterior
+    private void evictTrends(Long userId) {
+        LocalDate today = LocalDate.now(zone);
+        trendCache.evict(trendKey(userId, today));
+        trendCache.evict(trendKey(userId, today.minusDays(1)));
+    }
+
+    private DailyTrendSeries load(Long userId, LocalDate from, LocalDate to) {
+        return DailyTrendSeries.of(from, rollupRepository.findByUserBetween(userId, from, to));
+    }
+
+    private LocalDate dayOf(OffsetDateTime createdAt) {
+        Instant at = createdAt == null ? Instant.now() : createdAt.toInstant();
+        return at.atZone(zone).toLocalDate();
+    }
+
+    private static WellbeingTrendDTO.Bucket toBucket(LocalDate start, MoodEnergyHistogram h) {
+        return new WellbeingTrendDTO.Bucket(start, h.total(), h.moods(), h.energyLevels());
+    }
+}
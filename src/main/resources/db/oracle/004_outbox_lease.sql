@@ -0,0 +1,4 @@
+-- Lease do OutboxRelay: cada lote pendente é reservado por um nó antes de ser publicado.
+-- Rodar UMA vez, antes de subir a versão com OutboxMessage.claimedBy.
+
+ALTER TABLE outbox_messages ADD (claimed_by VARCHAR2(64), claimed_until TIMESTAMP(6) WITH TIME ZONE);
@@ -0,0 +1,21 @@
+-- Migração para alocação de ids em blocos (allocationSize = 50, otimizador pooled-lo).
+-- Rodar UMA vez, antes de subir a versão com SEQ_USERS.
+--
+-- Enquanto as sequences existentes estiverem com INCREMENT BY 1, o Hibernate
+-- (increment_size_mismatch_strategy: fix) se ajusta a 1 e continua gerando ids sem colisão.
+
+ALTER SEQUENCE SEQ_CHECKINS INCREMENT BY 50;
+ALTER SEQUENCE SEQ_GENERATED_MESSAGES INCREMENT BY 50;
+ALTER SEQUENCE SEQ_OUTBOX_MESSAGES INCREMENT BY 50;
+
+-- users: IDENTITY -> SEQ_USERS.
+-- A sequence começa depois do maior id existente e a coluna identity passa a aceitar ids explícitos.
+DECLARE
+    v_start NUMBER;
+BEGIN
+    SELECT NVL(MAX(id), 0) + 1 INTO v_start FROM users;
+    EXECUTE IMMEDIATE 'CREATE SEQUENCE SEQ_USERS START WITH ' || v_start || ' INCREMENT BY 50';
+END;
+/
+
+ALTER TABLE users MODIFY (id GENERATED BY DEFAULT ON NULL AS IDENTITY);
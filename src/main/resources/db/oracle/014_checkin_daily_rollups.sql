@@ -0,0 +1,24 @@
+-- Rollups diários de check-ins por usuário (tendências de humor/energia).
+-- Rodar UMA vez, antes de subir a versão com WellbeingTrendService.
+-- O "dia" é calculado em UTC (wellwork.trends.zone); se o fuso configurado for outro, ajuste o AT TIME ZONE abaixo.
+
+CREATE TABLE checkin_daily_rollups (
+    user_id       NUMBER(19)    NOT NULL,
+    bucket_date   DATE          NOT NULL,
+    mood          VARCHAR2(255) NOT NULL,
+    energy_level  VARCHAR2(255) NOT NULL,
+    check_ins     NUMBER(19)    DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_checkin_daily_rollups PRIMARY KEY (user_id, bucket_date, mood, energy_level)
+);
+
+-- Backfill a partir do histórico existente
+INSERT INTO checkin_daily_rollups (user_id, bucket_date, mood, energy_level, check_ins)
+SELECT user_id,
+       TRUNC(CAST(created_at AT TIME ZONE 'UTC' AS DATE)),
+       mood,
+       energy_level,
+       COUNT(*)
+  FROM checkins
+ GROUP BY user_id, TRUNC(CAST(created_at AT TIME ZONE 'UTC' AS DATE)), mood, energy_level;
+
+COMMIT;
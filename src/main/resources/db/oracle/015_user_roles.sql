@@ -0,0 +1,7 @@
+-- Role dos usuários (/api/analytics exige HR ou ADMIN).
+-- Rodar UMA vez, antes de subir a versão com User.role; todos os usuários existentes começam como USER.
+
+ALTER TABLE users ADD (role VARCHAR2(20) DEFAULT 'USER' NOT NULL);
+
+-- Promover um usuário (vale a partir do próximo login, quando o token é reemitido):
+-- UPDATE users SET role = 'HR' WHERE username = '...';
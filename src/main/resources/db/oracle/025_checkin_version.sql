@@ -0,0 +1,4 @@
+-- Versão dos check-ins (ETag de GET /api/checkins/{id}).
+-- Rodar UMA vez, antes de subir a versão com CheckIn.version; linhas existentes começam na versão 0.
+
+ALTER TABLE checkins ADD (version NUMBER(19) DEFAULT 0 NOT NULL);
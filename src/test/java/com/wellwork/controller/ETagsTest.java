@@ -0,0 +1,83 @@
+package com.wellwork.controller;
+
+import com.wellwork.dto.CheckInPageDTO;
+import com.wellwork.dto.CheckInResponseDTO;
+import com.wellwork.dto.CheckInVersionDTO;
+import com.wellwork.dto.UserResponseDTO;
+import com.wellwork.service.CheckInService;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ETagsTest {
+
+    private static final OffsetDateTime T0 = OffsetDateTime.of(2024, 5, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void checkInTagIsQuotedAndChangesWithVersion() {
+        String v1 = ETags.checkIn(10L, 1);
+
+        assertEquals("\"checkin-10-v1\"", v1);
+        assertNotEquals(v1, ETags.checkIn(10L, 2));
+        assertNotEquals(v1, ETags.checkIn(11L, 1));
+    }
+
+    @Test
+    void pageTagFromVersionsMatchesTagFromPage() {
+        CheckInPageDTO page = new CheckInPageDTO(List.of(item(2L, 3), item(1L, 0)), "cursor-2");
+        CheckInService.PageVersions versions = new CheckInService.PageVersions(
+                List.of(new CheckInVersionDTO(2L, 3, T0), new CheckInVersionDTO(1L, 0, T0)), "cursor-2");
+
+        assertEquals(ETags.checkInPage(page), ETags.checkInPage(versions));
+    }
+
+    @Test
+    void pageTagChangesWithVersionMembershipOrCursor() {
+        String base = ETags.checkInPage(new CheckInPageDTO(List.of(item(2L, 3), item(1L, 0)), null));
+
+        assertNotEquals(base, ETags.checkInPage(new CheckInPageDTO(List.of(item(2L, 4), item(1L, 0)), null)));
+        assertNotEquals(base, ETags.checkInPage(new CheckInPageDTO(List.of(item(3L, 0), item(2L, 3)), null)));
+        assertNotEquals(base, ETags.checkInPage(new CheckInPageDTO(List.of(item(2L, 3), item(1L, 0)), "next")));
+        assertEquals(base, ETags.checkInPage(new CheckInPageDTO(List.of(item(2L, 3), item(1L, 0)), null)));
+    }
+
+    @Test
+    void userTagChangesWithUsername() {
+        UserResponseDTO user = new UserResponseDTO();
+        user.setId(5L);
+        user.setUsername("ana");
+        String before = ETags.user(user);
+
+        user.setUsername("ana.souza");
+
+        assertNotEquals(before, ETags.user(user));
+        assertTrue(before.startsWith("\"user-5-") && before.endsWith("\""), before);
+    }
+
+    @Test
+    void matchesStrongWeakListAndWildcard() {
+        String etag = ETags.checkIn(10L, 1);
+
+        assertTrue(ETags.matches(etag, etag));
+        assertTrue(ETags.matches("W/" + etag, etag));
+        assertTrue(ETags.matches("\"outro\", " + etag, etag));
+        assertTrue(ETags.matches("*", etag));
+        assertFalse(ETags.matches(null, etag));
+        assertFalse(ETags.matches(ETags.checkIn(10L, 2), etag));
+    }
+
+    private static CheckInResponseDTO item(Long id, long version) {
+        CheckInResponseDTO dto = new CheckInResponseDTO();
+        dto.setId(id);
+        dto.setCreatedAt(T0);
+        dto.setVersion(version);
+        return dto;
+    }
+}
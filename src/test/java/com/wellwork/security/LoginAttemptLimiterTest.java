@@ -0,0 +1,99 @@
+package com.wellwork.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginAttemptLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    // refill de 1 token/min: nada é reposto durante o teste
+    private LoginAttemptLimiter limiter(int ipCapacity, int usernameCapacity) {
+        return new LoginAttemptLimiter(registry, ipCapacity, 1, usernameCapacity, 1, 1000, 4);
+    }
+
+    @Test
+    void usernameIsThrottledAfterCapacityAttempts() {
+        LoginAttemptLimiter limiter = limiter(100, 3);
+
+        for (int i = 0; i < 3; i++) {
+            limiter.checkAllowed("ana", "10.0.0." + i);
+        }
+        LoginThrottledException ex = assertThrows(LoginThrottledException.class,
+                () -> limiter.checkAllowed("ana", "10.0.0.9"));
+
+        Duration wait = ex.getRetryAfter();
+        assertTrue(!wait.isNegative() && !wait.isZero() && wait.compareTo(Duration.ofMinutes(1)) <= 0, wait.toString());
+        assertEquals(1.0, throttled("username"));
+        assertEquals(0.0, throttled("ip"));
+    }
+
+    @Test
+    void usernameKeyIgnoresCaseAndSurroundingSpaces() {
+        LoginAttemptLimiter limiter = limiter(100, 2);
+
+        limiter.checkAllowed("Ana", "10.0.0.1");
+        limiter.checkAllowed("  ana ", "10.0.0.2");
+
+        assertThrows(LoginThrottledException.class, () -> limiter.checkAllowed("ANA", "10.0.0.3"));
+    }
+
+    @Test
+    void ipIsThrottledAcrossDifferentUsernames() {
+        LoginAttemptLimiter limiter = limiter(2, 5);
+
+        limiter.checkAllowed("ana", "10.0.0.1");
+        limiter.checkAllowed("bruno", "10.0.0.1");
+
+        assertThrows(LoginThrottledException.class, () -> limiter.checkAllowed("carla", "10.0.0.1"));
+        assertDoesNotThrow(() -> limiter.checkAllowed("carla", "10.0.0.2"));
+        assertEquals(1.0, throttled("ip"));
+    }
+
+    @Test
+    void successResetsUsernameBucket() {
+        LoginAttemptLimiter limiter = limiter(100, 2);
+
+        limiter.checkAllowed("ana", "10.0.0.1");
+        limiter.checkAllowed("ana", "10.0.0.1");
+        limiter.recordSuccess("ana");
+
+        assertDoesNotThrow(() -> limiter.checkAllowed("ana", "10.0.0.1"));
+        assertDoesNotThrow(() -> limiter.checkAllowed("ana", "10.0.0.1"));
+    }
+
+    @Test
+    void releaseRefundsTheUsernameToken() {
+        LoginAttemptLimiter limiter = limiter(100, 1);
+
+        limiter.checkAllowed("ana", "10.0.0.1");
+        limiter.release("ana");
+
+        assertDoesNotThrow(() -> limiter.checkAllowed("ana", "10.0.0.1"));
+        assertThrows(LoginThrottledException.class, () -> limiter.checkAllowed("ana", "10.0.0.1"));
+    }
+
+    @Test
+    void refundNeverExceedsCapacity() {
+        LoginAttemptLimiter.BucketTable table = new LoginAttemptLimiter.BucketTable(2, 1, 100, 4);
+
+        assertEquals(0, table.tryConsume("k"));
+        table.refund("k");
+        table.refund("k");
+
+        assertEquals(0, table.tryConsume("k"));
+        assertEquals(0, table.tryConsume("k"));
+        assertTrue(table.tryConsume("k") > 0);
+    }
+
+    private double throttled(String scope) {
+        return registry.get("wellwork.auth.login.throttled").tag("scope", scope).counter().count();
+    }
+}
@@ -0,0 +1,102 @@
+package com.wellwork.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryRateLimitStoreTest {
+
+    private final InMemoryRateLimitStore store = new InMemoryRateLimitStore(1000, Duration.ofMinutes(10));
+
+    @Test
+    void consumesUpToCapacityThenDenies() {
+        for (int expectedRemaining = 2; expectedRemaining >= 0; expectedRemaining--) {
+            RateLimitDecision decision = store.tryConsume("user:1", 3, 1);
+            assertTrue(decision.allowed());
+            assertEquals(3, decision.limit());
+            assertEquals(expectedRemaining, decision.remaining());
+            assertEquals(Duration.ZERO, decision.retryAfter());
+        }
+
+        RateLimitDecision denied = store.tryConsume("user:1", 3, 1);
+
+        assertFalse(denied.allowed());
+        assertEquals(0, denied.remaining());
+        assertTrue(denied.retryAfter().compareTo(Duration.ZERO) > 0
+                && denied.retryAfter().compareTo(Duration.ofMinutes(1)) <= 0, denied.retryAfter().toString());
+        assertTrue(denied.reset().compareTo(denied.retryAfter()) >= 0
+                && denied.reset().compareTo(Duration.ofMinutes(3)) <= 0, denied.reset().toString());
+    }
+
+    @Test
+    void deniedAttemptDoesNotConsume() {
+        store.tryConsume("user:1", 1, 1);
+
+        Duration first = store.tryConsume("user:1", 1, 1).retryAfter();
+        Duration second = store.tryConsume("user:1", 1, 1).retryAfter();
+
+        // esperas decrescentes: a recusa não empurrou o próximo token para frente
+        assertTrue(second.compareTo(first) <= 0, first + " -> " + second);
+    }
+
+    @Test
+    void bucketsAreIndependentPerKey() {
+        store.tryConsume("user:1", 1, 1);
+
+        assertFalse(store.tryConsume("user:1", 1, 1).allowed());
+        assertTrue(store.tryConsume("user:2", 1, 1).allowed());
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        // 60000/min = 1 token por ms
+        assertTrue(store.tryConsume("ip:10.0.0.1", 1, 60_000).allowed());
+
+        Thread.sleep(20);
+
+        assertTrue(store.tryConsume("ip:10.0.0.1", 1, 60_000).allowed());
+    }
+
+    @Test
+    void concurrentConsumersNeverExceedCapacity() throws Exception {
+        int capacity = 100;
+        int threads = 8;
+        int attemptsPerThread = 50;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    int allowed = 0;
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        if (store.tryConsume("user:hot", capacity, 1).allowed()) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            start.countDown();
+
+            int allowed = 0;
+            for (Future<Integer> result : results) {
+                allowed += result.get();
+            }
+            assertEquals(capacity, allowed);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
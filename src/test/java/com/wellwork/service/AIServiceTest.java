@@ -0,0 +1,143 @@
+package com.wellwork.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AIServiceTest {
+
+    private static final String OK_BODY = "{\"choices\":[{\"message\":{\"content\":\" Respire fundo. \"}}]}";
+    private static final Duration BLOCK_TIMEOUT = Duration.ofSeconds(5);
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final Deque<ClientResponse> responses = new ArrayDeque<>();
+
+    @Test
+    void retriesTransientErrorAndReturnsTrimmedMessage() {
+        enqueue(HttpStatus.SERVICE_UNAVAILABLE, null, "indisponível");
+        enqueue(HttpStatus.OK, null, OK_BODY);
+
+        AIService.Result result = service(3, 1, 20).generateMessageAsync("prompt").block(BLOCK_TIMEOUT);
+
+        assertEquals("Respire fundo.", result.message());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void givesUpAfterMaxAttemptsAsUnavailable() {
+        for (int i = 0; i < 5; i++) {
+            enqueue(HttpStatus.BAD_GATEWAY, null, "");
+        }
+
+        AIService service = service(3, 1, 20);
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> service.generateMessageAsync("prompt").block(BLOCK_TIMEOUT));
+
+        assertInstanceOf(AiUnavailableException.class, ex);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void clientErrorIsNotRetried() {
+        enqueue(HttpStatus.BAD_REQUEST, null, "prompt inválido");
+
+        AIService service = service(3, 1, 20);
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> service.generateMessageAsync("prompt").block(BLOCK_TIMEOUT));
+
+        GroqApiException api = assertInstanceOf(GroqApiException.class, ex);
+        assertEquals(400, api.getStatus());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void retryAfterInSecondsReplacesExponentialBackoff() {
+        // backoff próprio de 1 min: só termina a tempo se o Retry-After: 0 for usado
+        enqueue(HttpStatus.TOO_MANY_REQUESTS, "0", "");
+        enqueue(HttpStatus.OK, null, OK_BODY);
+
+        AIService.Result result = service(3, 60_000, 120_000).generateMessageAsync("prompt").block(BLOCK_TIMEOUT);
+
+        assertEquals("Respire fundo.", result.message());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void retryAfterAsPastHttpDateMeansRetryNow() {
+        String past = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC).minusMinutes(1));
+        enqueue(HttpStatus.TOO_MANY_REQUESTS, past, "");
+        enqueue(HttpStatus.OK, null, OK_BODY);
+
+        AIService.Result result = service(3, 60_000, 120_000).generateMessageAsync("prompt").block(BLOCK_TIMEOUT);
+
+        assertEquals("Respire fundo.", result.message());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void retryAfterLongerThanMaxBackoffFailsImmediately() {
+        enqueue(HttpStatus.TOO_MANY_REQUESTS, "120", "");
+        enqueue(HttpStatus.OK, null, OK_BODY);
+
+        AIService service = service(3, 1, 1_000);
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> service.generateMessageAsync("prompt").block(BLOCK_TIMEOUT));
+
+        AiUnavailableException unavailable = assertInstanceOf(AiUnavailableException.class, ex);
+        GroqApiException api = assertInstanceOf(GroqApiException.class, unavailable.getCause());
+        assertEquals(Duration.ofSeconds(120), api.getRetryAfter().orElseThrow());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void emptyCompletionIsAnError() {
+        enqueue(HttpStatus.OK, null, "{\"choices\":[{\"message\":{\"content\":\"  \"}}]}");
+
+        AIService service = service(3, 1, 20);
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> service.generateMessageAsync("prompt").block(BLOCK_TIMEOUT));
+
+        assertEquals("Resposta vazia da Groq", ex.getMessage());
+        assertEquals(1, calls.get());
+    }
+
+    private void enqueue(HttpStatus status, String retryAfter, String body) {
+        ClientResponse.Builder response = ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body);
+        if (retryAfter != null) {
+            response.header(HttpHeaders.RETRY_AFTER, retryAfter);
+        }
+        responses.add(response.build());
+    }
+
+    private AIService service(int maxAttempts, long initialBackoffMs, long maxBackoffMs) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> Mono.fromSupplier(() -> {
+                    calls.incrementAndGet();
+                    return responses.removeFirst();
+                }))
+                .build();
+        return new AIService(webClient, "test-model", 5, maxAttempts, initialBackoffMs, maxBackoffMs,
+                CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), new ObjectMapper());
+    }
+}
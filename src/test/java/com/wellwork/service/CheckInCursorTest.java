@@ -0,0 +1,50 @@
+package com.wellwork.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CheckInCursorTest {
+
+    @Test
+    void roundTripPreservesInstantAndId() {
+        OffsetDateTime createdAt = OffsetDateTime.of(2024, 3, 10, 14, 30, 15, 123_456_000, ZoneOffset.UTC);
+        CheckInCursor cursor = new CheckInCursor(createdAt, 42L);
+
+        CheckInCursor decoded = CheckInCursor.decode(cursor.encode());
+
+        assertEquals(createdAt, decoded.createdAt());
+        assertEquals(42L, decoded.id());
+    }
+
+    @Test
+    void decodeNormalizesOffsetToUtc() {
+        OffsetDateTime saoPaulo = OffsetDateTime.of(2024, 3, 10, 11, 30, 0, 0, ZoneOffset.ofHours(-3));
+
+        CheckInCursor decoded = CheckInCursor.decode(new CheckInCursor(saoPaulo, 7L).encode());
+
+        assertEquals(saoPaulo.toInstant(), decoded.createdAt().toInstant());
+        assertEquals(ZoneOffset.UTC, decoded.createdAt().getOffset());
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new CheckInCursor(OffsetDateTime.now(ZoneOffset.UTC), Long.MAX_VALUE).encode();
+
+        assertFalse(encoded.contains("+") || encoded.contains("/") || encoded.contains("="), encoded);
+    }
+
+    @Test
+    void invalidCursorIsRejectedAsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> CheckInCursor.decode("não-é-base64!"));
+        // base64 válido, mas sem separador
+        assertThrows(IllegalArgumentException.class, () -> CheckInCursor.decode("YWJj"));
+        // separador presente, id não numérico
+        assertThrows(IllegalArgumentException.class, () -> CheckInCursor.decode("MjAyNC0wMS0wMVQwMDowMDowMFp8eA"));
+    }
+}